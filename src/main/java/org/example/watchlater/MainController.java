@@ -6,6 +6,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
@@ -15,6 +16,7 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.BorderPane;
 import org.example.watchlater.model.TMDBMovie;
 import org.example.watchlater.model.User;
+import org.example.watchlater.model.WatchlistStatus;
 import org.example.watchlater.service.AsyncWatchlistService;
 import org.example.watchlater.service.impl.TMDBServiceImpl;
 import org.example.watchlater.ui.MovieDetailsView;
@@ -23,6 +25,9 @@ import org.example.watchlater.ui.MovieSearchView;
 import org.example.watchlater.ui.WatchlistView;
 import org.example.watchlater.repository.MovieRepository;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -45,6 +50,8 @@ public class MainController {
 
     private final ObservableList<TMDBMovie> movies = FXCollections.observableArrayList();
     private final FilteredList<TMDBMovie> filteredMovies;
+    // Watchlist status of the listed movies, loaded in bulk; only touched on the FX thread
+    private final Map<Integer, WatchlistStatus> movieStatuses = new HashMap<>();
     
     public MainController(User user, AsyncWatchlistService watchlistService, TMDBServiceImpl tmdbService, MovieRepository movieRepository) {
         this.user = user;
@@ -67,6 +74,7 @@ public class MainController {
         movieSearchView.setOnMovieSelected(this::showMovieDetails);
 
         movieListView.setCellFactory(lv -> new MovieListCell());
+        movies.addListener((ListChangeListener<TMDBMovie>) change -> refreshMovieStatuses());
         movieListView.getSelectionModel().selectedItemProperty()
             .addListener(this::handleMovieSelection);
     }
@@ -93,11 +101,34 @@ public class MainController {
         contentArea.getChildren().add(movieSearchView);
 
         movieSearchView.refreshWatchlistStatuses();
+        refreshMovieStatuses();
 
         BorderPane root = (BorderPane) contentArea.getScene().getRoot();
         root.setTop(null);
     }
 
+    /**
+     * Loads the watchlist status of every listed movie with one query, so list cells
+     * render from memory instead of querying per cell on every update.
+     */
+    private void refreshMovieStatuses() {
+        if (movies.isEmpty()) {
+            movieStatuses.clear();
+            return;
+        }
+        List<Integer> tmdbIds = movies.stream().map(TMDBMovie::getTmdbId).toList();
+        watchlistService.getWatchlistStatuses(user.getId(), tmdbIds)
+            .thenAccept(statuses -> Platform.runLater(() -> {
+                movieStatuses.clear();
+                movieStatuses.putAll(statuses);
+                movieListView.refresh();
+            }))
+            .exceptionally(ex -> {
+                logger.log(Level.WARNING, "Failed to load watchlist statuses", ex);
+                return null;
+            });
+    }
+
     private void showMovieDetails(TMDBMovie movie) {
         BorderPane root = (BorderPane) contentArea.getScene().getRoot();
         root.setTop(null);
@@ -129,7 +160,7 @@ public class MainController {
     private void showWatchlist() {
         contentArea.getChildren().clear();
 
-        WatchlistView newWatchlistView = new WatchlistView(user, watchlistService, tmdbService, movieRepository);
+        WatchlistView newWatchlistView = new WatchlistView(user, watchlistService, tmdbService);
         newWatchlistView.setOnStatsSelected(this::showStatisticsView);
         newWatchlistView.setOnBackAction(this::showMovieSearch);
         newWatchlistView.setOnMovieSelected(this::showMovieDetails);
@@ -201,26 +232,17 @@ public class MainController {
             }
             
             titleLabel.setText(movie.getTitle());
-            yearLabel.setText(String.valueOf(movie.getReleaseDate().getYear()));
-
-            watchlistService.isInWatchlist(user.getId(), movie.getTmdbId())
-                .thenAccept(inWatchlist -> {
-                    if (inWatchlist) {
-                        watchlistService.isWatched(user.getId(), movie.getTmdbId())
-                            .thenAccept(isWatched -> {
-                                Platform.runLater(() -> {
-                                    statusLabel.setText(isWatched ? "Watched" : "Saved");
-                                    statusLabel.getStyleClass().setAll("movie-info",
-                                        isWatched ? "status-watched" : "status-saved");
-                                });
-                            });
-                    } else {
-                        Platform.runLater(() -> {
-                            statusLabel.setText("");
-                            statusLabel.getStyleClass().setAll("movie-info");
-                        });
-                    }
-                });
+            yearLabel.setText(movie.getReleaseDate() != null ? String.valueOf(movie.getReleaseDate().getYear()) : "");
+
+            WatchlistStatus status = movieStatuses.getOrDefault(movie.getTmdbId(), WatchlistStatus.ABSENT);
+            if (status.isInWatchlist()) {
+                statusLabel.setText(status.isWatched() ? "Watched" : "Saved");
+                statusLabel.getStyleClass().setAll("movie-info",
+                    status.isWatched() ? "status-watched" : "status-saved");
+            } else {
+                statusLabel.setText("");
+                statusLabel.getStyleClass().setAll("movie-info");
+            }
             
             setGraphic(content);
         }
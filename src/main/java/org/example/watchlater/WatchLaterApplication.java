@@ -5,16 +5,22 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import org.example.watchlater.config.AppConfig;
+import org.example.watchlater.config.AppProperties;
 import org.example.watchlater.config.DatabaseConfig;
+import org.example.watchlater.config.TMDBConfig;
 import org.example.watchlater.model.User;
 import org.example.watchlater.service.AsyncWatchlistService;
 import org.example.watchlater.service.impl.AsyncWatchlistServiceImpl;
+import org.example.watchlater.service.impl.MovieCacheWriter;
 import org.example.watchlater.service.impl.TMDBServiceImpl;
 import org.example.watchlater.repository.MovieRepository;
 import org.example.watchlater.repository.impl.MovieRepositoryImpl;
 import org.example.watchlater.repository.impl.WatchlistRepositoryImpl;
+import org.example.watchlater.util.IoExecutor;
 import org.example.watchlater.util.TMDBClient;
+import org.example.watchlater.util.TMDBTransport;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -24,6 +30,10 @@ public class WatchLaterApplication extends Application {
     private TMDBServiceImpl tmdbService;
     private User currentUser;
     private MovieRepository movieRepository;
+    private TMDBClient tmdbClient;
+    private TMDBTransport tmdbTransport;
+    private IoExecutor ioExecutor;
+    private MovieCacheWriter movieCacheWriter;
     
     @Override
     public void init() throws Exception {
@@ -35,10 +45,14 @@ public class WatchLaterApplication extends Application {
             currentUser = AppConfig.getDefaultUser();
 
             this.movieRepository = new MovieRepositoryImpl(currentUser);
-            TMDBClient tmdbClient = new TMDBClient();
-            this.tmdbService = new TMDBServiceImpl(tmdbClient, movieRepository);
+            this.tmdbTransport = new TMDBTransport();
+            this.tmdbTransport.preconnect(TMDBConfig.getInstance().getBaseUrl());
+            this.tmdbClient = new TMDBClient(tmdbTransport);
+            this.ioExecutor = IoExecutor.fromProperties(AppProperties.getInstance());
+            this.movieCacheWriter = MovieCacheWriter.fromProperties(movieRepository, AppProperties.getInstance());
+            this.tmdbService = new TMDBServiceImpl(tmdbClient, movieRepository, movieCacheWriter, ioExecutor);
             this.watchlistService = new AsyncWatchlistServiceImpl(
-                new WatchlistRepositoryImpl(dbConfig, movieRepository),
+                new WatchlistRepositoryImpl(dbConfig),
                 movieRepository
             );
             
@@ -76,12 +90,31 @@ public class WatchLaterApplication extends Application {
     public void stop() throws Exception {
         super.stop();
         try {
-            DatabaseConfig.getInstance().close();
-            
             // Clean up resources if necessary
             if (watchlistService != null) {
                 watchlistService.shutdown();
             }
+            if (tmdbService != null) {
+                tmdbService.shutdown();
+            }
+            // Running service tasks may still queue cache writes, so they finish first
+            if (ioExecutor != null) {
+                ioExecutor.shutdown();
+                if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    logger.warning("I/O tasks still running at shutdown");
+                }
+            }
+            // Queued cache writes go out before the pool closes
+            if (movieCacheWriter != null) {
+                movieCacheWriter.close();
+            }
+            DatabaseConfig.getInstance().close();
+            if (tmdbClient != null) {
+                tmdbClient.close();
+            }
+            if (tmdbTransport != null) {
+                tmdbTransport.close();
+            }
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error stopping application", e);
         }
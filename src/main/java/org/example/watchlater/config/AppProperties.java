@@ -0,0 +1,86 @@
+package org.example.watchlater.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+public class AppProperties {
+    private static final Logger logger = Logger.getLogger(AppProperties.class.getName());
+    private static AppProperties instance;
+    private final Properties properties;
+
+    private AppProperties() {
+        this.properties = new Properties();
+        try (InputStream in = AppProperties.class.getResourceAsStream("/application.properties")) {
+            if (in != null) {
+                properties.load(in);
+            } else {
+                logger.warning("application.properties not found on classpath, using defaults");
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to load application.properties, using defaults", e);
+        }
+    }
+
+    public static synchronized AppProperties getInstance() {
+        if (instance == null) {
+            instance = new AppProperties();
+        }
+        return instance;
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank() || value.startsWith("${")) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid integer for {0}: {1}", new Object[]{key, value});
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid number for {0}: {1}", new Object[]{key, value});
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Directory for files the application keeps between runs (HTTP cache etc.).
+     * Defaults to {@code ~/.watchlater} unless {@code app.data-dir} is set.
+     */
+    public Path getDataDirectory() {
+        String configured = getString("app.data-dir", null);
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".watchlater");
+    }
+}
@@ -10,7 +10,6 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.Properties;
 
 @Slf4j
@@ -138,64 +137,10 @@ public class DatabaseConfig {
         }
     }
     
+    /**
+     * Brings the schema up to date through the versioned scripts under db/migration.
+     */
     public void initializeDatabase() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS users (
-                    id BIGSERIAL PRIMARY KEY,
-                    email VARCHAR(255) UNIQUE NOT NULL,
-                    display_name VARCHAR(255) NOT NULL,
-                    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
-                    last_login TIMESTAMP WITH TIME ZONE
-                )
-            """);
-
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS movie_cache (
-                    id BIGSERIAL PRIMARY KEY,
-                    tmdb_id INTEGER UNIQUE NOT NULL,
-                    title VARCHAR(255) NOT NULL,
-                    overview TEXT,
-                    poster_path VARCHAR(255),
-                    backdrop_path VARCHAR(255),
-                    release_date DATE,
-                    vote_average DOUBLE PRECISION,
-                    vote_count INTEGER,
-                    genres INTEGER[],
-                    original_language VARCHAR(10),
-                    original_title VARCHAR(255),
-                    popularity DOUBLE PRECISION,
-                    adult BOOLEAN,
-                    video BOOLEAN,
-                    cache_timestamp TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
-                )
-            """);
-
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS watchlist (
-                    id BIGSERIAL PRIMARY KEY,
-                    user_id BIGINT REFERENCES users(id),
-                    movie_id BIGINT REFERENCES movie_cache(id),
-                    watched BOOLEAN DEFAULT FALSE,
-                    priority INTEGER DEFAULT 0,
-                    notes TEXT,
-                    added_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
-                    watched_at TIMESTAMP WITH TIME ZONE,
-                    UNIQUE(user_id, movie_id)
-                )
-            """);
-
-            stmt.execute("""
-                INSERT INTO users (id, email, display_name)
-                VALUES (1, 'default@watchlater.com', 'Default User')
-                ON CONFLICT (id) DO NOTHING
-            """);
-            
-        } catch (SQLException e) {
-            log.error("Error initializing database", e);
-            throw new RuntimeException("Failed to initialize database", e);
-        }
+        new MigrationRunner(this).migrate();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,187 @@
+package org.example.watchlater.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the SQL scripts listed in {@code db/migration/index.txt} in order and records
+ * each one in schema_version. When the recorded version is already the latest, startup
+ * costs two small reads and no DDL. Every script runs in its own transaction, and an
+ * advisory lock keeps two instances starting at once from applying the same script.
+ */
+@Slf4j
+public class MigrationRunner {
+    private static final String LOCATION = "/db/migration/";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final long LOCK_ID = 7_310_142_020L;
+
+    private final DatabaseConfig dbConfig;
+
+    public MigrationRunner(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+
+    /**
+     * Brings the schema up to date and returns its version.
+     */
+    public int migrate() {
+        List<Migration> migrations = loadMigrations();
+        int latest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+
+        try (Connection conn = dbConfig.getConnection()) {
+            Map<Integer, Long> applied = appliedMigrations(conn);
+            verifyChecksums(migrations, applied);
+            int current = applied.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            if (current >= latest) {
+                log.debug("Database schema is at version {}, nothing to migrate", current);
+                return current;
+            }
+
+            try (Statement lock = conn.createStatement()) {
+                lock.execute("SELECT pg_advisory_lock(" + LOCK_ID + ")");
+                try {
+                    lock.execute("""
+                        CREATE TABLE IF NOT EXISTS schema_version (
+                            version INTEGER PRIMARY KEY,
+                            description VARCHAR(255) NOT NULL,
+                            script VARCHAR(255) NOT NULL,
+                            checksum BIGINT NOT NULL,
+                            execution_ms BIGINT NOT NULL,
+                            applied_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+                        )
+                    """);
+                    // Another instance may have migrated while we waited for the lock
+                    applied = appliedMigrations(conn);
+                    for (Migration migration : migrations) {
+                        if (!applied.containsKey(migration.version())) {
+                            apply(conn, migration);
+                            current = migration.version();
+                        }
+                    }
+                } finally {
+                    lock.execute("SELECT pg_advisory_unlock(" + LOCK_ID + ")");
+                }
+            }
+            return current;
+        } catch (SQLException e) {
+            log.error("Error migrating database schema", e);
+            throw new RuntimeException("Failed to migrate database schema", e);
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        log.info("Applying migration {}", migration.script());
+        long start = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                 "INSERT INTO schema_version (version, description, script, checksum, execution_ms) " +
+                 "VALUES (?, ?, ?, ?, ?)")) {
+            stmt.execute(migration.sql());
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            record.setInt(1, migration.version());
+            record.setString(2, migration.description());
+            record.setString(3, migration.script());
+            record.setLong(4, migration.checksum());
+            record.setLong(5, elapsedMs);
+            record.executeUpdate();
+            conn.commit();
+            log.info("Applied migration {} in {} ms", migration.script(), elapsedMs);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.script() + " failed", e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private Map<Integer, Long> appliedMigrations(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT to_regclass('schema_version') IS NOT NULL")) {
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    return applied;
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+                while (rs.next()) {
+                    applied.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+        return applied;
+    }
+
+    private void verifyChecksums(List<Migration> migrations, Map<Integer, Long> applied) {
+        for (Migration migration : migrations) {
+            Long recorded = applied.get(migration.version());
+            if (recorded != null && recorded != migration.checksum()) {
+                log.warn("Migration {} was changed after it was applied; edit a new script instead",
+                    migration.script());
+            }
+        }
+    }
+
+    static List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        for (String script : readLines(LOCATION + "index.txt")) {
+            Matcher matcher = SCRIPT_NAME.matcher(script);
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Invalid migration script name: " + script);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (!migrations.isEmpty() && version <= migrations.get(migrations.size() - 1).version()) {
+                throw new IllegalStateException("Migrations must be listed in increasing version order: " + script);
+            }
+            String sql = String.join("\n", readLines(LOCATION + script));
+            CRC32 crc = new CRC32();
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), script, sql, crc.getValue()));
+        }
+        return migrations;
+    }
+
+    private static List<String> readLines(String resource) {
+        boolean index = resource.endsWith("index.txt");
+        try (InputStream in = MigrationRunner.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing migration resource " + resource);
+            }
+            List<String> lines = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (index) {
+                    line = line.strip();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                }
+                lines.add(line);
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read migration resource " + resource, e);
+        }
+    }
+
+    public record Migration(int version, String description, String script, String sql, long checksum) {
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.watchlater.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.example.watchlater.config.AppProperties;
+import org.example.watchlater.config.DatabaseConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Seeds movie_cache from a TMDB daily ID export ({@code movie_ids_MM_DD_YYYY.json.gz}),
+ * a gzipped file with one JSON object per line:
+ * {@code {"adult":false,"id":3924,"original_title":"Blondie","popularity":2.4,"video":false}}.
+ * <p>
+ * Rows are streamed with COPY into a temporary staging table and merged into movie_cache
+ * with a single INSERT ... ON CONFLICT, all in one transaction. New rows get the original
+ * title as their title and an epoch cache_timestamp, so the first time a movie is opened
+ * its full details are still fetched from TMDB. Existing rows only have their popularity
+ * refreshed; details fetched earlier are left alone.
+ */
+@Slf4j
+public class CatalogImporter {
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_ROWS = 50_000;
+
+    private static final String CREATE_STAGING_TABLE = """
+        CREATE TEMP TABLE movie_import (
+            tmdb_id INTEGER,
+            original_title TEXT,
+            popularity DOUBLE PRECISION,
+            adult BOOLEAN,
+            video BOOLEAN
+        ) ON COMMIT DROP
+        """;
+
+    private static final String COPY_STAGING =
+        "COPY movie_import (tmdb_id, original_title, popularity, adult, video) FROM STDIN";
+
+    private static final String MERGE_STAGING = """
+        WITH upserted AS (
+            INSERT INTO movie_cache (tmdb_id, title, original_title, popularity, adult, video, cache_timestamp)
+            SELECT DISTINCT ON (tmdb_id)
+                   tmdb_id, left(original_title, 255), left(original_title, 255),
+                   popularity, adult, video, to_timestamp(0)
+            FROM movie_import
+            ORDER BY tmdb_id
+            ON CONFLICT (tmdb_id) DO UPDATE SET popularity = EXCLUDED.popularity
+            WHERE movie_cache.popularity IS DISTINCT FROM EXCLUDED.popularity
+            RETURNING (xmax = 0) AS inserted
+        )
+        SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM upserted
+        """;
+
+    private final DatabaseConfig dbConfig;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final boolean includeAdult;
+
+    public CatalogImporter(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+        this.includeAdult = AppProperties.getInstance().getBoolean("app.include-adult", false);
+    }
+
+    public ImportResult importExport(Path exportFile, Consumer<ImportProgress> progress) throws IOException, SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = dbConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(CREATE_STAGING_TABLE);
+                }
+
+                CopyCounts counts = copyToStaging(conn, exportFile, start, progress);
+                log.info("Staged {} rows ({} skipped), merging into movie_cache", counts.copied, counts.skipped);
+
+                long inserted = 0;
+                long updated = 0;
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(MERGE_STAGING)) {
+                    if (rs.next()) {
+                        inserted = rs.getLong(1);
+                        updated = rs.getLong(2);
+                    }
+                }
+                conn.commit();
+
+                ImportResult result = new ImportResult(counts.lines, counts.copied, counts.skipped,
+                    inserted, updated, Duration.ofNanos(System.nanoTime() - start));
+                log.info("Catalog import finished: {}", result);
+                return result;
+            } catch (IOException | SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private CopyCounts copyToStaging(Connection conn, Path exportFile, long start,
+                                     Consumer<ImportProgress> progress) throws IOException, SQLException {
+        CopyCounts counts = new CopyCounts();
+        CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(exportFile), COPY_BUFFER_BYTES);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder batch = new StringBuilder(COPY_BUFFER_BYTES);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                counts.lines++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (!appendRow(line, batch)) {
+                    counts.skipped++;
+                    continue;
+                }
+                counts.copied++;
+
+                if (batch.length() >= COPY_BUFFER_BYTES) {
+                    writeBatch(copyIn, batch);
+                }
+                if (counts.copied % PROGRESS_INTERVAL_ROWS == 0) {
+                    progress.accept(new ImportProgress(counts.copied, rowsPerSecond(counts.copied, start)));
+                }
+            }
+            writeBatch(copyIn, batch);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        progress.accept(new ImportProgress(counts.copied, rowsPerSecond(counts.copied, start)));
+        return counts;
+    }
+
+    /**
+     * Converts one export line to a COPY text row. Returns false for lines that cannot be
+     * used: malformed JSON, no id or title, or adult titles when those are excluded.
+     */
+    private boolean appendRow(String line, StringBuilder batch) {
+        Integer tmdbId = null;
+        String originalTitle = null;
+        String popularity = null;
+        boolean adult = false;
+        boolean video = false;
+
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> tmdbId = value == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : null;
+                    case "original_title" -> originalTitle = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    case "popularity" -> popularity = value.isNumeric() ? parser.getText() : null;
+                    case "adult" -> adult = value == JsonToken.VALUE_TRUE;
+                    case "video" -> video = value == JsonToken.VALUE_TRUE;
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Skipping malformed export line: {}", line);
+            return false;
+        }
+
+        if (tmdbId == null || originalTitle == null || originalTitle.isBlank() || (adult && !includeAdult)) {
+            return false;
+        }
+
+        batch.append(tmdbId).append('\t');
+        appendEscaped(batch, originalTitle);
+        batch.append('\t').append(popularity != null ? popularity : "\\N");
+        batch.append('\t').append(adult ? 't' : 'f');
+        batch.append('\t').append(video ? 't' : 'f');
+        batch.append('\n');
+        return true;
+    }
+
+    private static void appendEscaped(StringBuilder batch, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> batch.append("\\\\");
+                case '\t' -> batch.append("\\t");
+                case '\n' -> batch.append("\\n");
+                case '\r' -> batch.append("\\r");
+                default -> batch.append(c);
+            }
+        }
+    }
+
+    private static void writeBatch(CopyIn copyIn, StringBuilder batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        batch.setLength(0);
+    }
+
+    private static double rowsPerSecond(long rows, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed == 0 ? 0.0 : rows * 1_000_000_000.0 / elapsed;
+    }
+
+    private static class CopyCounts {
+        long lines;
+        long copied;
+        long skipped;
+    }
+
+    public record ImportProgress(long rowsCopied, double rowsPerSecond) {
+    }
+
+    /**
+     * {@code skipped} lines were unusable or filtered out; {@code inserted} and
+     * {@code updated} count the movie_cache rows the merge actually wrote.
+     */
+    public record ImportResult(long linesRead, long rowsCopied, long skipped,
+                               long inserted, long updated, Duration elapsed) {
+        public double rowsPerSecond() {
+            long millis = elapsed.toMillis();
+            return millis == 0 ? 0.0 : rowsCopied * 1000.0 / millis;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: CatalogImporter <movie_ids_MM_DD_YYYY.json.gz>");
+            System.exit(2);
+        }
+
+        DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+        try {
+            dbConfig.initializeDatabase();
+            ImportResult result = new CatalogImporter(dbConfig).importExport(Paths.get(args[0]),
+                p -> System.out.printf("%,d rows staged (%,.0f rows/s)%n", p.rowsCopied(), p.rowsPerSecond()));
+            System.out.printf("Imported %,d rows in %d s (%,.0f rows/s): %,d inserted, %,d updated, %,d skipped%n",
+                result.rowsCopied(), result.elapsed().toSeconds(), result.rowsPerSecond(),
+                result.inserted(), result.updated(), result.skipped());
+        } finally {
+            dbConfig.close();
+        }
+    }
+}
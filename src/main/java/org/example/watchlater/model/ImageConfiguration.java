@@ -0,0 +1,118 @@
+package org.example.watchlater.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Image section of TMDB's /configuration: where images are served from and which
+ * renditions exist. Views ask for the smallest rendition that still covers the
+ * on-screen size in physical pixels instead of a fixed one.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImageConfiguration {
+    public static final String ORIGINAL = "original";
+
+    // Values TMDB has published for years; used until the real configuration is loaded
+    private static final List<String> DEFAULT_POSTER_SIZES =
+        List.of("w92", "w154", "w185", "w342", "w500", "w780", ORIGINAL);
+    private static final List<String> DEFAULT_BACKDROP_SIZES =
+        List.of("w300", "w780", "w1280", ORIGINAL);
+
+    @JsonProperty("secure_base_url")
+    private String secureBaseUrl;
+
+    @JsonProperty("poster_sizes")
+    private List<String> posterSizes = List.of();
+
+    @JsonProperty("backdrop_sizes")
+    private List<String> backdropSizes = List.of();
+
+    // Not part of TMDB's response; set when the configuration is fetched and persisted
+    @JsonProperty("fetched_at")
+    private Instant fetchedAt;
+
+    public static ImageConfiguration defaults(String baseUrl) {
+        ImageConfiguration configuration = new ImageConfiguration();
+        configuration.setSecureBaseUrl(baseUrl);
+        configuration.setPosterSizes(DEFAULT_POSTER_SIZES);
+        configuration.setBackdropSizes(DEFAULT_BACKDROP_SIZES);
+        return configuration;
+    }
+
+    @JsonIgnore
+    public boolean isComplete() {
+        return secureBaseUrl != null && !secureBaseUrl.isBlank()
+            && posterSizes != null && !posterSizes.isEmpty()
+            && backdropSizes != null && !backdropSizes.isEmpty();
+    }
+
+    public String posterSize(double displayWidth, double scale) {
+        return smallestCovering(posterSizes, displayWidth * scale);
+    }
+
+    public String backdropSize(double displayWidth, double scale) {
+        return smallestCovering(backdropSizes, displayWidth * scale);
+    }
+
+    public String posterUrl(TMDBMovie movie, double displayWidth, double scale) {
+        return movie.getFullPosterUrl(secureBaseUrl, posterSize(displayWidth, scale));
+    }
+
+    public String backdropUrl(TMDBMovie movie, double displayWidth, double scale) {
+        return movie.getFullBackdropUrl(secureBaseUrl, backdropSize(displayWidth, scale));
+    }
+
+    /**
+     * Narrowest {@code wNNN} rendition at least {@code pixels} wide. Falls back to
+     * {@code original} when none is wide enough, or to the widest one if TMDB lists
+     * no original.
+     */
+    static String smallestCovering(List<String> sizes, double pixels) {
+        String best = null;
+        int bestWidth = Integer.MAX_VALUE;
+        String widest = null;
+        int widestWidth = -1;
+        boolean hasOriginal = sizes == null || sizes.isEmpty();
+        for (String size : sizes == null ? List.<String>of() : sizes) {
+            if (ORIGINAL.equals(size)) {
+                hasOriginal = true;
+                continue;
+            }
+            int width = widthOf(size);
+            if (width < 0) {
+                continue;
+            }
+            if (width >= pixels && width < bestWidth) {
+                best = size;
+                bestWidth = width;
+            }
+            if (width > widestWidth) {
+                widest = size;
+                widestWidth = width;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return hasOriginal || widest == null ? ORIGINAL : widest;
+    }
+
+    private static int widthOf(String size) {
+        if (size == null || size.length() < 2 || size.charAt(0) != 'w') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(size.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
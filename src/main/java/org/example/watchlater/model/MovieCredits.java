@@ -0,0 +1,41 @@
+package org.example.watchlater.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Cast and crew of a movie, as returned by TMDB's credits sub-resource.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MovieCredits {
+    private List<CastMember> cast = List.of();
+    private List<CrewMember> crew = List.of();
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CastMember {
+        private Integer id;
+        private String name;
+        private String character;
+        private Integer order;
+
+        @JsonProperty("profile_path")
+        private String profilePath;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CrewMember {
+        private Integer id;
+        private String name;
+        private String job;
+        private String department;
+
+        @JsonProperty("profile_path")
+        private String profilePath;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.watchlater.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a TMDB list endpoint together with its paging cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MoviePage {
+    private int page;
+    private List<TMDBMovie> results = List.of();
+
+    @JsonProperty("total_pages")
+    private int totalPages;
+
+    @JsonProperty("total_results")
+    private int totalResults;
+
+    // Set when TMDB was unreachable and the page was answered from movie_cache
+    @JsonIgnore
+    private boolean offline;
+
+    public boolean hasNextPage() {
+        return page < totalPages;
+    }
+
+    public static MoviePage empty(int page) {
+        return new MoviePage(page, List.of(), 0, 0, false);
+    }
+
+    /**
+     * A single, final page of locally cached movies.
+     */
+    public static MoviePage offline(List<TMDBMovie> movies) {
+        return new MoviePage(1, movies, 1, movies.size(), true);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.watchlater.model;
+
+/**
+ * The slice of a movie_cache row the title index needs.
+ */
+public record MovieTitle(int tmdbId, String title, String originalTitle, double popularity, boolean inWatchlist) {
+}
@@ -0,0 +1,29 @@
+package org.example.watchlater.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Trailers, teasers and clips of a movie, as returned by TMDB's videos sub-resource.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MovieVideos {
+    private List<Video> results = List.of();
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Video {
+        private String key;
+        private String name;
+        private String site;
+        private String type;
+        private Boolean official;
+
+        @JsonProperty("published_at")
+        private String publishedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.watchlater.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The first page of TMDB's popular list as last persisted, in ranking order.
+ */
+public record PopularSnapshot(List<TMDBMovie> movies, int totalPages, Instant refreshedAt) {
+
+    public List<Integer> ranking() {
+        return movies.stream().map(TMDBMovie::getTmdbId).toList();
+    }
+
+    public MoviePage toPage() {
+        return new MoviePage(1, movies, totalPages, movies.size(), false);
+    }
+}
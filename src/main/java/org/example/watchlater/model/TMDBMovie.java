@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,8 +65,17 @@ public class TMDBMovie {
     private Boolean adult;
     private Boolean video;
     
+    // Sub-resources, only present when fetched with append_to_response
+    private MovieCredits credits;
+    private MovieVideos videos;
+    private MoviePage similar;
+    
     @JsonIgnore
     private LocalDateTime cacheTimestamp;
+    
+    // When the details-only fields above were last fetched; null if they never were
+    @JsonIgnore
+    private LocalDateTime detailsUpdatedAt;
 
     public TMDBMovie() {}
 
@@ -150,6 +160,19 @@ public class TMDBMovie {
         this.genres = genres;
     }
 
+    // The details endpoint sends genres as objects instead of genre_ids
+    @JsonProperty("genres")
+    private void setGenreObjects(List<Map<String, Object>> genreObjects) {
+        if (genreObjects == null) {
+            return;
+        }
+        this.genres = genreObjects.stream()
+            .map(genre -> genre.get("id"))
+            .filter(Number.class::isInstance)
+            .map(id -> ((Number) id).intValue())
+            .toList();
+    }
+
     public Integer getRuntime() {
         return runtime;
     }
@@ -182,14 +205,26 @@ public class TMDBMovie {
         this.budget = budget;
     }
 
+    public Long getRevenue() {
+        return revenue;
+    }
+
     public void setRevenue(Long revenue) {
         this.revenue = revenue;
     }
 
+    public String getHomepage() {
+        return homepage;
+    }
+
     public void setHomepage(String homepage) {
         this.homepage = homepage;
     }
 
+    public String getImdbId() {
+        return imdbId;
+    }
+
     public void setImdbId(String imdbId) {
         this.imdbId = imdbId;
     }
@@ -234,31 +269,56 @@ public class TMDBMovie {
         this.video = video;
     }
 
+    public MovieCredits getCredits() {
+        return credits;
+    }
+
+    public void setCredits(MovieCredits credits) {
+        this.credits = credits;
+    }
+
+    public MovieVideos getVideos() {
+        return videos;
+    }
+
+    public void setVideos(MovieVideos videos) {
+        this.videos = videos;
+    }
+
+    public MoviePage getSimilar() {
+        return similar;
+    }
+
+    public void setSimilar(MoviePage similar) {
+        this.similar = similar;
+    }
+
 
     public void setCacheTimestamp(LocalDateTime cacheTimestamp) {
         this.cacheTimestamp = cacheTimestamp;
     }
 
+    public LocalDateTime getDetailsUpdatedAt() {
+        return detailsUpdatedAt;
+    }
+
+    public void setDetailsUpdatedAt(LocalDateTime detailsUpdatedAt) {
+        this.detailsUpdatedAt = detailsUpdatedAt;
+    }
+
     public String getFullPosterUrl(String baseUrl, String size) {
         if (posterPath == null || posterPath.isEmpty()) {
             log.warn("Poster path is null or empty for movie: {}", title);
             return null;
         }
 
-        String normalizedBaseUrl = baseUrl.endsWith("/t/p/") ? baseUrl : "https://image.tmdb.org/t/p/";
-
         String normalizedPath = posterPath.startsWith("/") ? posterPath : "/" + posterPath;
 
         if (normalizedPath.matches("/w\\d+/.*")) {
             normalizedPath = normalizedPath.substring(normalizedPath.indexOf("/", 1));
         }
 
-        String normalizedSize = size.replaceAll("[^0-9]", "");
-        if (normalizedSize.isEmpty()) {
-            normalizedSize = "500"; // domyślny rozmiar
-        }
-
-        return normalizedBaseUrl + "w" + normalizedSize + normalizedPath;
+        return normalizeImageBaseUrl(baseUrl) + normalizeImageSize(size, "w500") + normalizedPath;
     }
     
     public String getFullBackdropUrl(String baseUrl, String size) {
@@ -266,19 +326,38 @@ public class TMDBMovie {
             return null;
         }
 
-        String normalizedBaseUrl = baseUrl.endsWith("/t/p/") ? baseUrl : "https://image.tmdb.org/t/p/";
-
         String normalizedPath = backdropPath.startsWith("/") ? backdropPath : "/" + backdropPath;
 
         if (normalizedPath.matches("/w\\d+/.*")) {
             normalizedPath = normalizedPath.substring(normalizedPath.indexOf("/", 1));
         }
 
-        String normalizedSize = "original";
-
-        return normalizedBaseUrl + normalizedSize + normalizedPath;
+        return normalizeImageBaseUrl(baseUrl) + normalizeImageSize(size, "original") + normalizedPath;
     }
     
+    private static String normalizeImageBaseUrl(String baseUrl) {
+        if (baseUrl == null || !baseUrl.startsWith("http")) {
+            return "https://image.tmdb.org/t/p/";
+        }
+        return baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+    
+    /**
+     * Accepts TMDB size names ("w185", "original") as well as a bare width ("500").
+     */
+    private static String normalizeImageSize(String size, String defaultSize) {
+        if (size == null || size.isBlank()) {
+            return defaultSize;
+        }
+        String trimmed = size.trim();
+        if (trimmed.equals("original") || trimmed.matches("[wh]\\d+")) {
+            return trimmed;
+        }
+        String digits = trimmed.replaceAll("[^0-9]", "");
+        return digits.isEmpty() ? defaultSize : "w" + digits;
+    }
+    
+    @JsonIgnore
     public String getFormattedRuntime() {
         if (runtime == null || runtime <= 0) {
             return "N/A";
@@ -291,6 +370,7 @@ public class TMDBMovie {
         return String.format("%dm", minutes);
     }
     
+    @JsonIgnore
     public String getFormattedBudget() {
         if (budget == null || budget <= 0) {
             return "N/A";
@@ -298,6 +378,7 @@ public class TMDBMovie {
         return String.format("$%,d", budget);
     }
     
+    @JsonIgnore
     public String getFormattedRevenue() {
         if (revenue == null || revenue <= 0) {
             return "N/A";
@@ -305,6 +386,7 @@ public class TMDBMovie {
         return String.format("$%,d", revenue);
     }
     
+    @JsonIgnore
     public String getFormattedReleaseDate() {
         if (releaseDate == null) {
             return "N/A";
@@ -312,6 +394,7 @@ public class TMDBMovie {
         return releaseDate.format(DateTimeFormatter.ofPattern("MMMM dd, yyyy"));
     }
     
+    @JsonIgnore
     public String getFormattedVoteAverage() {
         if (voteAverage == null || voteAverage <= 0) {
             return "N/A";
@@ -319,6 +402,7 @@ public class TMDBMovie {
         return String.format("%.1f", voteAverage);
     }
     
+    @JsonIgnore
     public String getFormattedVoteCount() {
         if (voteCount == null || voteCount <= 0) {
             return "N/A";
@@ -470,11 +554,31 @@ public class TMDBMovie {
             return this;
         }
 
+        public Builder credits(MovieCredits credits) {
+            movie.setCredits(credits);
+            return this;
+        }
+
+        public Builder videos(MovieVideos videos) {
+            movie.setVideos(videos);
+            return this;
+        }
+
+        public Builder similar(MoviePage similar) {
+            movie.setSimilar(similar);
+            return this;
+        }
+
         public Builder cacheTimestamp(LocalDateTime cacheTimestamp) {
             movie.setCacheTimestamp(cacheTimestamp);
             return this;
         }
 
+        public Builder detailsUpdatedAt(LocalDateTime detailsUpdatedAt) {
+            movie.setDetailsUpdatedAt(detailsUpdatedAt);
+            return this;
+        }
+
         public TMDBMovie build() {
             return movie;
         }
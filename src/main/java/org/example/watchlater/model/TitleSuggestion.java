@@ -0,0 +1,4 @@
+package org.example.watchlater.model;
+
+public record TitleSuggestion(int tmdbId, String title, double popularity) {
+}
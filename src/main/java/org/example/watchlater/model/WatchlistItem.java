@@ -0,0 +1,10 @@
+package org.example.watchlater.model;
+
+/**
+ * A watchlist entry together with its cached movie, loaded by one joined query.
+ */
+public record WatchlistItem(WatchlistEntry entry, TMDBMovie movie) {
+    public boolean isWatched() {
+        return entry.isWatched();
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.watchlater.model;
+
+/**
+ * Where a movie stands in a user's watchlist.
+ */
+public enum WatchlistStatus {
+    ABSENT,
+    UNWATCHED,
+    WATCHED;
+
+    public boolean isInWatchlist() {
+        return this != ABSENT;
+    }
+
+    public boolean isWatched() {
+        return this == WATCHED;
+    }
+}
@@ -1,11 +1,25 @@
 package org.example.watchlater.repository;
 
+import org.example.watchlater.model.MovieTitle;
+import org.example.watchlater.model.PopularSnapshot;
 import org.example.watchlater.model.TMDBMovie;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface MovieRepository {
     void save(TMDBMovie movie);
+    void saveAll(Collection<TMDBMovie> movies);
     Optional<TMDBMovie> findByTmdbId(Integer tmdbId);
     boolean isCachedAndNotExpired(Integer tmdbId, int maxAgeInHours);
+    Optional<TMDBMovie> findFreshByTmdbId(Integer tmdbId, Duration maxAge);
     Optional<TMDBMovie> findById(Integer id);
+    List<TMDBMovie> searchByTitle(String query, int limit);
+    List<TMDBMovie> findPopular(int limit);
+    void forEachTitle(int limit, Consumer<MovieTitle> consumer);
+    void addSaveListener(Consumer<TMDBMovie> listener);
+    Optional<PopularSnapshot> findPopularSnapshot();
+    void replacePopularSnapshot(List<Integer> tmdbIds, int totalPages);
 } 
\ No newline at end of file
@@ -1,7 +1,11 @@
 package org.example.watchlater.repository;
 
 import org.example.watchlater.model.WatchlistEntry;
+import org.example.watchlater.model.WatchlistItem;
+import org.example.watchlater.model.WatchlistStatus;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface WatchlistRepository {
@@ -10,6 +14,8 @@ public interface WatchlistRepository {
     CompletableFuture<Boolean> markAsWatched(Long userId, Integer movieId);
     CompletableFuture<Boolean> markAsUnwatched(Long userId, Integer movieId);
     CompletableFuture<List<WatchlistEntry>> getWatchlist(Long userId);
+    CompletableFuture<List<WatchlistItem>> getWatchlistItems(Long userId);
     CompletableFuture<Boolean> isInWatchlist(Long userId, Integer movieId);
     CompletableFuture<Boolean> isWatched(Long userId, Integer movieId);
+    CompletableFuture<Map<Integer, WatchlistStatus>> getWatchlistStatuses(Long userId, Collection<Integer> tmdbIds);
 } 
\ No newline at end of file
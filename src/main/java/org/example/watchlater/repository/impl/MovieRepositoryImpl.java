@@ -1,35 +1,102 @@
 package org.example.watchlater.repository.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.watchlater.config.AppProperties;
 import org.example.watchlater.config.DatabaseConfig;
+import org.example.watchlater.model.MovieTitle;
+import org.example.watchlater.model.PopularSnapshot;
 import org.example.watchlater.model.TMDBMovie;
 import org.example.watchlater.repository.MovieRepository;
 import org.example.watchlater.model.User;
 
 import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class MovieRepositoryImpl implements MovieRepository {
+    // CatalogImporter seeds title-only rows with an epoch cache_timestamp; lists skip them
+    private static final String NOT_PLACEHOLDER = "cache_timestamp > to_timestamp(0)";
+    
     private final DatabaseConfig dbConfig;
     private final User user;
+    private final List<Consumer<TMDBMovie>> saveListeners = new CopyOnWriteArrayList<>();
+    // Null disables refreshing cache_timestamp of unchanged rows
+    private final Duration touchAfter;
+    private final LongAdder rowsInserted = new LongAdder();
+    private final LongAdder rowsUpdated = new LongAdder();
+    private final LongAdder rowsTouched = new LongAdder();
+    private final LongAdder rowsUnchanged = new LongAdder();
     
     public MovieRepositoryImpl(User user) {
         this.dbConfig = DatabaseConfig.getInstance();
         this.user = user;
+        int touchAfterMinutes = AppProperties.getInstance().getInt("app.cache.touch-unchanged-after-minutes", 60);
+        this.touchAfter = touchAfterMinutes < 0 ? null : Duration.ofMinutes(touchAfterMinutes);
     }
     
     @Override
     public void save(TMDBMovie movie) {
-
-        String sql = "INSERT INTO movie_cache (" +
+        saveAll(List.of(movie));
+    }
+    
+    /**
+     * Upserts a whole page in one statement: the columns travel as parallel arrays and are
+     * expanded with unnest, so 20 movies cost one round trip instead of 20. Duplicate
+     * tmdbIds are collapsed first (last one wins) because ON CONFLICT cannot touch the
+     * same row twice in one command.
+     * <p>
+     * A row is only rewritten when its content hash changed. Unchanged rows get just their
+     * cache_timestamp refreshed, and only once it is older than {@code touchAfter}, so
+     * repeated searches for the same titles produce almost no writes.
+     * <p>
+     * Movies fetched from the details endpoint also carry a details document. It is merged
+     * into the stored one key by key, so a plain details fetch keeps previously cached
+     * credits, and it always stamps details_updated_at. List results carry no document
+     * and leave the stored one alone.
+     */
+    @Override
+    public void saveAll(Collection<TMDBMovie> movies) {
+        Map<Integer, TMDBMovie> unique = new LinkedHashMap<>();
+        for (TMDBMovie movie : movies) {
+            if (movie != null && movie.getTmdbId() != null) {
+                unique.put(movie.getTmdbId(), movie);
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+        
+        // unnest cannot produce array-valued columns, so genres travel as array literals
+        String sql = "WITH input AS (" +
+                    "SELECT tmdb_id, title, overview, poster_path, backdrop_path, release_date, vote_average, " +
+                    "vote_count, original_language, original_title, popularity, adult, video, " +
+                    "genres::int[] AS genres, details::jsonb AS details, content_hash FROM unnest(" +
+                    "?::int[], ?::text[], ?::text[], ?::text[], ?::text[], ?::date[], ?::float8[], " +
+                    "?::int[], ?::text[], ?::text[], ?::float8[], ?::boolean[], ?::boolean[], " +
+                    "?::text[], ?::text[], ?::bigint[]) " +
+                    "AS t(tmdb_id, title, overview, poster_path, backdrop_path, release_date, vote_average, " +
+                    "vote_count, original_language, original_title, popularity, adult, video, " +
+                    "genres, details, content_hash)" +
+                    "), upserted AS (" +
+                    "INSERT INTO movie_cache (" +
                     "tmdb_id, title, overview, poster_path, backdrop_path, " +
                     "release_date, vote_average, vote_count, " +
                     "original_language, original_title, popularity, adult, video, " +
-                    "cache_timestamp" +
-                    ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "genres, details, content_hash, details_updated_at, cache_timestamp" +
+                    ") SELECT *, CASE WHEN details IS NULL THEN NULL ELSE CURRENT_TIMESTAMP END, " +
+                    "CURRENT_TIMESTAMP FROM input " +
                     "ON CONFLICT (tmdb_id) DO UPDATE SET " +
                     "title = EXCLUDED.title, " +
                     "overview = EXCLUDED.overview, " +
@@ -43,51 +110,156 @@ public class MovieRepositoryImpl implements MovieRepository {
                     "popularity = EXCLUDED.popularity, " +
                     "adult = EXCLUDED.adult, " +
                     "video = EXCLUDED.video, " +
+                    "genres = coalesce(EXCLUDED.genres, movie_cache.genres), " +
+                    "details = CASE WHEN EXCLUDED.details IS NULL THEN movie_cache.details " +
+                    "ELSE coalesce(movie_cache.details, '{}') || EXCLUDED.details END, " +
+                    "details_updated_at = coalesce(EXCLUDED.details_updated_at, movie_cache.details_updated_at), " +
+                    "content_hash = EXCLUDED.content_hash, " +
                     "cache_timestamp = CURRENT_TIMESTAMP " +
-                    "RETURNING *";
-                    
-        try (Connection conn = dbConfig.getConnection()) {
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                
-                stmt.setInt(1, movie.getTmdbId());
-                stmt.setString(2, movie.getTitle());
-                stmt.setString(3, movie.getOverview());
-                stmt.setString(4, movie.getPosterPath());
-                stmt.setString(5, movie.getBackdropPath());
-                stmt.setDate(6, movie.getReleaseDate() != null ? 
-                    Date.valueOf(movie.getReleaseDate()) : null);
-                stmt.setDouble(7, movie.getVoteAverage());
-                stmt.setInt(8, movie.getVoteCount());
-                stmt.setString(9, movie.getOriginalLanguage());
-                stmt.setString(10, movie.getOriginalTitle());
-                stmt.setDouble(11, movie.getPopularity());
-                stmt.setBoolean(12, movie.getAdult());
-                stmt.setBoolean(13, movie.getVideo());
-                stmt.setTimestamp(14, Timestamp.valueOf(LocalDateTime.now()));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        TMDBMovie savedMovie = mapMovie(rs);
-                    } else {
-                        throw new RuntimeException("Failed to save movie - no rows returned");
-                    }
-                }
+                    "WHERE movie_cache.content_hash IS DISTINCT FROM EXCLUDED.content_hash " +
+                    "OR EXCLUDED.details IS NOT NULL " +
+                    "RETURNING xmax = 0 AS inserted" +
+                    "), touched AS (" +
+                    "UPDATE movie_cache m SET cache_timestamp = CURRENT_TIMESTAMP FROM input i " +
+                    "WHERE m.tmdb_id = i.tmdb_id AND m.content_hash = i.content_hash AND i.details IS NULL " +
+                    "AND ? AND m.cache_timestamp < CURRENT_TIMESTAMP - ? * interval '1 second' " +
+                    "RETURNING 1" +
+                    ") SELECT " +
+                    "(SELECT count(*) FROM upserted WHERE inserted), " +
+                    "(SELECT count(*) FROM upserted WHERE NOT inserted), " +
+                    "(SELECT count(*) FROM touched)";
+        
+        int size = unique.size();
+        Integer[] tmdbIds = new Integer[size];
+        String[] titles = new String[size];
+        String[] overviews = new String[size];
+        String[] posterPaths = new String[size];
+        String[] backdropPaths = new String[size];
+        Date[] releaseDates = new Date[size];
+        Double[] voteAverages = new Double[size];
+        Integer[] voteCounts = new Integer[size];
+        String[] originalLanguages = new String[size];
+        String[] originalTitles = new String[size];
+        Double[] popularities = new Double[size];
+        Boolean[] adults = new Boolean[size];
+        Boolean[] videos = new Boolean[size];
+        String[] genres = new String[size];
+        String[] details = new String[size];
+        Long[] contentHashes = new Long[size];
+        int i = 0;
+        for (TMDBMovie movie : unique.values()) {
+            tmdbIds[i] = movie.getTmdbId();
+            titles[i] = movie.getTitle();
+            overviews[i] = movie.getOverview();
+            posterPaths[i] = movie.getPosterPath();
+            backdropPaths[i] = movie.getBackdropPath();
+            releaseDates[i] = movie.getReleaseDate() != null ? Date.valueOf(movie.getReleaseDate()) : null;
+            voteAverages[i] = movie.getVoteAverage();
+            voteCounts[i] = movie.getVoteCount();
+            originalLanguages[i] = movie.getOriginalLanguage();
+            originalTitles[i] = movie.getOriginalTitle();
+            popularities[i] = movie.getPopularity();
+            adults[i] = movie.getAdult();
+            videos[i] = movie.getVideo();
+            genres[i] = movie.getGenres() != null ? movie.getGenres().stream()
+                .map(String::valueOf).collect(Collectors.joining(",", "{", "}")) : null;
+            details[i] = MovieRowMapper.detailsJson(movie);
+            contentHashes[i] = contentHash(movie);
+            i++;
+        }
+        
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setArray(1, conn.createArrayOf("integer", tmdbIds));
+            stmt.setArray(2, conn.createArrayOf("text", titles));
+            stmt.setArray(3, conn.createArrayOf("text", overviews));
+            stmt.setArray(4, conn.createArrayOf("text", posterPaths));
+            stmt.setArray(5, conn.createArrayOf("text", backdropPaths));
+            stmt.setArray(6, conn.createArrayOf("date", releaseDates));
+            stmt.setArray(7, conn.createArrayOf("float8", voteAverages));
+            stmt.setArray(8, conn.createArrayOf("integer", voteCounts));
+            stmt.setArray(9, conn.createArrayOf("text", originalLanguages));
+            stmt.setArray(10, conn.createArrayOf("text", originalTitles));
+            stmt.setArray(11, conn.createArrayOf("float8", popularities));
+            stmt.setArray(12, conn.createArrayOf("boolean", adults));
+            stmt.setArray(13, conn.createArrayOf("boolean", videos));
+            stmt.setArray(14, conn.createArrayOf("text", genres));
+            stmt.setArray(15, conn.createArrayOf("text", details));
+            stmt.setArray(16, conn.createArrayOf("bigint", contentHashes));
+            stmt.setBoolean(17, touchAfter != null);
+            stmt.setLong(18, touchAfter != null ? touchAfter.toSeconds() : 0);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                long inserted = rs.getLong(1);
+                long updated = rs.getLong(2);
+                long touched = rs.getLong(3);
+                rowsInserted.add(inserted);
+                rowsUpdated.add(updated);
+                rowsTouched.add(touched);
+                rowsUnchanged.add(size - inserted - updated - touched);
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to save movie", e);
+            throw new RuntimeException("Failed to save " + size + " movies", e);
+        }
+        unique.values().forEach(this::notifySaved);
+    }
+    
+    /**
+     * 64-bit FNV-1a over every list-endpoint column the upsert writes. Field values are
+     * separated by a character that cannot occur in TMDB data, so shifting text between
+     * fields changes the hash. The details document is left out: list results do not
+     * carry it, and a movie that does is always written.
+     */
+    static long contentHash(TMDBMovie movie) {
+        long hash = 0xcbf29ce484222325L;
+        Object[] fields = {
+            movie.getTitle(), movie.getOverview(), movie.getPosterPath(), movie.getBackdropPath(),
+            movie.getReleaseDate(), movie.getVoteAverage(), movie.getVoteCount(),
+            movie.getOriginalLanguage(), movie.getOriginalTitle(), movie.getPopularity(),
+            movie.getAdult(), movie.getVideo(), movie.getGenres()
+        };
+        for (Object field : fields) {
+            String value = field == null ? "\u0000" : field.toString();
+            for (int c = 0; c < value.length(); c++) {
+                hash ^= value.charAt(c);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= '\u001f';
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    public WriteStats getWriteStats() {
+        return new WriteStats(rowsInserted.sum(), rowsUpdated.sum(), rowsTouched.sum(), rowsUnchanged.sum());
+    }
+    
+    @Override
+    public void addSaveListener(Consumer<TMDBMovie> listener) {
+        saveListeners.add(listener);
+    }
+    
+    private void notifySaved(TMDBMovie movie) {
+        for (Consumer<TMDBMovie> listener : saveListeners) {
+            try {
+                listener.accept(movie);
+            } catch (RuntimeException e) {
+                log.warn("Save listener failed for movie {}", movie.getTmdbId(), e);
+            }
         }
     }
     
     @Override
     public Optional<TMDBMovie> findByTmdbId(Integer tmdbId) {
-        String sql = "SELECT * FROM movie_cache WHERE tmdb_id = ?";
+        String sql = "SELECT " + MovieRowMapper.COLUMNS + ", details FROM movie_cache WHERE tmdb_id = ?";
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, tmdbId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapMovie(rs));
+                    return Optional.of(MovieRowMapper.mapWithDetails(rs));
                 }
             }
         } catch (SQLException e) {
@@ -118,16 +290,40 @@ public class MovieRepositoryImpl implements MovieRepository {
         return false;
     }
     
+    /**
+     * The cached movie if it was written within {@code maxAge}, read in one query rather
+     * than an expiry check followed by a lookup.
+     */
+    @Override
+    public Optional<TMDBMovie> findFreshByTmdbId(Integer tmdbId, Duration maxAge) {
+        String sql = "SELECT " + MovieRowMapper.COLUMNS + ", details FROM movie_cache " +
+                    "WHERE tmdb_id = ? AND cache_timestamp > CURRENT_TIMESTAMP - ? * interval '1 second'";
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, tmdbId);
+            stmt.setLong(2, maxAge.toSeconds());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(MovieRowMapper.mapWithDetails(rs));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error reading fresh movie from cache: {}", tmdbId, e);
+        }
+        return Optional.empty();
+    }
+    
     @Override
     public Optional<TMDBMovie> findById(Integer id) {
-        String sql = "SELECT * FROM movie_cache WHERE id = ?";
+        String sql = "SELECT " + MovieRowMapper.COLUMNS + ", details FROM movie_cache WHERE id = ?";
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapMovie(rs));
+                    return Optional.of(MovieRowMapper.mapWithDetails(rs));
                 }
             }
         } catch (SQLException e) {
@@ -136,31 +332,213 @@ public class MovieRepositoryImpl implements MovieRepository {
         return Optional.empty();
     }
     
-    private TMDBMovie mapMovie(ResultSet rs) throws SQLException {
-        TMDBMovie movie = TMDBMovie.builder()
-            .id(rs.getLong("id"))
-            .tmdbId(rs.getInt("tmdb_id"))
-            .title(rs.getString("title"))
-            .overview(rs.getString("overview"))
-            .posterPath(rs.getString("poster_path"))
-            .backdropPath(rs.getString("backdrop_path"))
-            .releaseDate(rs.getDate("release_date") != null ? 
-                rs.getDate("release_date").toLocalDate() : null)
-            .voteAverage(rs.getDouble("vote_average"))
-            .voteCount(rs.getInt("vote_count"))
-            .originalLanguage(rs.getString("original_language"))
-            .originalTitle(rs.getString("original_title"))
-            .popularity(rs.getDouble("popularity"))
-            .adult(rs.getBoolean("adult"))
-            .video(rs.getBoolean("video"))
-            .build();
+    /**
+     * Ranked local search: every word of the query is matched as a prefix against the
+     * search_vector (title, original title, overview), and trigram word similarity on the
+     * titles catches typos. Falls back to a plain ILIKE scan if the index or pg_trgm is missing.
+     */
+    @Override
+    public List<TMDBMovie> searchByTitle(String query, int limit) {
+        String term = query.trim();
+        String sql = "SELECT " + MovieRowMapper.COLUMNS + " FROM movie_cache " +
+                    "WHERE (search_vector @@ to_tsquery('simple', ?) OR ? <% title OR ? <% original_title) " +
+                    "AND " + NOT_PLACEHOLDER + " " +
+                    "ORDER BY ts_rank(search_vector, to_tsquery('simple', ?)) + " +
+                    "greatest(word_similarity(?, title), word_similarity(?, coalesce(original_title, ''))) DESC, " +
+                    "popularity DESC NULLS LAST LIMIT ?";
+        String tsQuery = toPrefixTsQuery(term);
+        
+        List<TMDBMovie> movies = new ArrayList<>();
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, tsQuery);
+            stmt.setString(2, term);
+            stmt.setString(3, term);
+            stmt.setString(4, tsQuery);
+            stmt.setString(5, term);
+            stmt.setString(6, term);
+            stmt.setInt(7, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    movies.add(MovieRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Indexed search failed, falling back to ILIKE: {}", e.getMessage());
+            return searchByTitleLike(term, limit);
+        }
+        return movies;
+    }
+    
+    /**
+     * "dark kni" becomes "dark:* & kni:*". Only letters and digits are kept, so user
+     * input can never produce tsquery syntax errors.
+     */
+    private static String toPrefixTsQuery(String query) {
+        StringBuilder tsQuery = new StringBuilder();
+        for (String word : query.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (!tsQuery.isEmpty()) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(word).append(":*");
+        }
+        return tsQuery.toString();
+    }
+    
+    private List<TMDBMovie> searchByTitleLike(String query, int limit) {
+        String sql = "SELECT " + MovieRowMapper.COLUMNS + " FROM movie_cache " +
+                    "WHERE (title ILIKE ? ESCAPE '\\' OR original_title ILIKE ? ESCAPE '\\') " +
+                    "AND " + NOT_PLACEHOLDER + " " +
+                    "ORDER BY popularity DESC NULLS LAST LIMIT ?";
+        String pattern = "%" + escapeLike(query) + "%";
+        
+        List<TMDBMovie> movies = new ArrayList<>();
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, pattern);
+            stmt.setString(2, pattern);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    movies.add(MovieRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error searching cached movies: {}", query, e);
+        }
+        return movies;
+    }
+    
+    @Override
+    public List<TMDBMovie> findPopular(int limit) {
+        String sql = "SELECT " + MovieRowMapper.COLUMNS + " FROM movie_cache WHERE " + NOT_PLACEHOLDER + " " +
+                    "ORDER BY popularity DESC NULLS LAST LIMIT ?";
+        
+        List<TMDBMovie> movies = new ArrayList<>();
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-        Array genresArray = rs.getArray("genres");
-        if (genresArray != null) {
-            Integer[] genres = (Integer[]) genresArray.getArray();
-            movie.setGenres(List.of(genres));
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    movies.add(MovieRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error loading popular cached movies", e);
         }
+        return movies;
+    }
+    
+    /**
+     * Streams titles for the in-memory title index: the user's watchlist first, then the
+     * rest by popularity, using a server-side cursor so the rows are never all in memory.
+     */
+    @Override
+    public void forEachTitle(int limit, Consumer<MovieTitle> consumer) {
+        String sql = "SELECT m.tmdb_id, m.title, m.original_title, m.popularity, " +
+                    "(w.tmdb_id IS NOT NULL) AS in_watchlist " +
+                    "FROM movie_cache m " +
+                    "LEFT JOIN (SELECT tmdb_id FROM watchlist WHERE user_id = ?) w ON w.tmdb_id = m.tmdb_id " +
+                    "ORDER BY in_watchlist DESC, m.popularity DESC NULLS LAST LIMIT ?";
         
-        return movie;
+        try (Connection conn = dbConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            // pgjdbc only honours the fetch size inside a transaction
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(5000);
+                stmt.setObject(1, user != null ? user.getId() : null, Types.BIGINT);
+                stmt.setInt(2, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(new MovieTitle(
+                            rs.getInt("tmdb_id"),
+                            rs.getString("title"),
+                            rs.getString("original_title"),
+                            rs.getDouble("popularity"),
+                            rs.getBoolean("in_watchlist")));
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.error("Error reading titles for the title index", e);
+        }
+    }
+    
+    @Override
+    public Optional<PopularSnapshot> findPopularSnapshot() {
+        String sql = "SELECT " + MovieRowMapper.columns("m") + ", p.total_pages, p.refreshed_at FROM popular_snapshot p " +
+                    "JOIN movie_cache m ON m.tmdb_id = p.tmdb_id ORDER BY p.position";
+        
+        List<TMDBMovie> movies = new ArrayList<>();
+        int totalPages = 0;
+        Instant refreshedAt = null;
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                movies.add(MovieRowMapper.map(rs));
+                totalPages = rs.getInt("total_pages");
+                refreshedAt = rs.getTimestamp("refreshed_at").toInstant();
+            }
+        } catch (SQLException e) {
+            log.error("Error loading popular movies snapshot", e);
+        }
+        return movies.isEmpty() ? Optional.empty() : Optional.of(new PopularSnapshot(movies, totalPages, refreshedAt));
+    }
+    
+    /**
+     * Replaces the stored ranking in one transaction. The movies must already be in movie_cache.
+     */
+    @Override
+    public void replacePopularSnapshot(List<Integer> tmdbIds, int totalPages) {
+        String insertSql = "INSERT INTO popular_snapshot (position, tmdb_id, total_pages, refreshed_at) " +
+                    "SELECT ranked.position, ranked.tmdb_id, ?, CURRENT_TIMESTAMP " +
+                    "FROM unnest(?::int[]) WITH ORDINALITY AS ranked(tmdb_id, position)";
+        
+        try (Connection conn = dbConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (Statement delete = conn.createStatement();
+                 PreparedStatement insert = conn.prepareStatement(insertSql)) {
+                delete.executeUpdate("DELETE FROM popular_snapshot");
+                insert.setInt(1, totalPages);
+                insert.setArray(2, conn.createArrayOf("integer", tmdbIds.toArray()));
+                insert.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.error("Error saving popular movies snapshot", e);
+        }
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * Rows written by {@link #saveAll}: {@code touched} rows were unchanged and only got a
+     * new cache_timestamp, {@code unchanged} rows were not written at all.
+     */
+    public record WriteStats(long inserted, long updated, long touched, long unchanged) {
+        public double skippedRatio() {
+            long total = inserted + updated + touched + unchanged;
+            return total == 0 ? 0.0 : (double) (touched + unchanged) / total;
+        }
     }
 } 
\ No newline at end of file
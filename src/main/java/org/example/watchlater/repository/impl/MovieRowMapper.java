@@ -0,0 +1,130 @@
+package org.example.watchlater.repository.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.watchlater.model.TMDBMovie;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a movie_cache row to a {@link TMDBMovie}. Shared by every query that selects
+ * movie_cache columns, including joins, so the mapping lives in one place.
+ * <p>
+ * List queries select {@link #COLUMNS}, which leaves out the details document; its
+ * scalar fields come from the generated columns. Single-movie lookups select the
+ * document too and read it with {@link #mapWithDetails}.
+ */
+final class MovieRowMapper {
+    private static final List<String> COLUMN_NAMES = List.of(
+        "id", "tmdb_id", "title", "overview", "poster_path", "backdrop_path", "release_date",
+        "vote_average", "vote_count", "genres", "original_language", "original_title",
+        "popularity", "adult", "video", "runtime", "budget", "revenue", "tagline", "status",
+        "homepage", "imdb_id", "details_updated_at");
+
+    static final String COLUMNS = columns(null);
+
+    // Keys of the details document, named as in TMDB's JSON
+    private static final String[] DETAIL_FIELDS = {
+        "runtime", "budget", "revenue", "tagline", "status", "homepage", "imdb_id",
+        "credits", "videos", "similar"
+    };
+
+    private static final ObjectMapper DETAILS_MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private MovieRowMapper() {
+    }
+
+    /**
+     * {@link #COLUMNS} qualified with a table alias, for joins.
+     */
+    static String columns(String alias) {
+        return COLUMN_NAMES.stream()
+            .map(column -> alias == null ? column : alias + "." + column)
+            .collect(Collectors.joining(", "));
+    }
+
+    static TMDBMovie map(ResultSet rs) throws SQLException {
+        TMDBMovie movie = TMDBMovie.builder()
+            .id(rs.getLong("id"))
+            .tmdbId(rs.getInt("tmdb_id"))
+            .title(rs.getString("title"))
+            .overview(rs.getString("overview"))
+            .posterPath(rs.getString("poster_path"))
+            .backdropPath(rs.getString("backdrop_path"))
+            .releaseDate(rs.getDate("release_date") != null ?
+                rs.getDate("release_date").toLocalDate() : null)
+            .voteAverage(rs.getDouble("vote_average"))
+            .voteCount(rs.getInt("vote_count"))
+            .originalLanguage(rs.getString("original_language"))
+            .originalTitle(rs.getString("original_title"))
+            .popularity(rs.getDouble("popularity"))
+            .adult(rs.getBoolean("adult"))
+            .video(rs.getBoolean("video"))
+            .runtime(rs.getObject("runtime", Integer.class))
+            .budget(rs.getObject("budget", Long.class))
+            .revenue(rs.getObject("revenue", Long.class))
+            .tagline(rs.getString("tagline"))
+            .status(rs.getString("status"))
+            .homepage(rs.getString("homepage"))
+            .imdbId(rs.getString("imdb_id"))
+            .build();
+
+        Array genresArray = rs.getArray("genres");
+        if (genresArray != null) {
+            Integer[] genres = (Integer[]) genresArray.getArray();
+            movie.setGenres(List.of(genres));
+        }
+
+        Timestamp detailsUpdatedAt = rs.getTimestamp("details_updated_at");
+        if (detailsUpdatedAt != null) {
+            movie.setDetailsUpdatedAt(detailsUpdatedAt.toLocalDateTime());
+        }
+
+        return movie;
+    }
+
+    /**
+     * Like {@link #map}, plus credits, videos and similar titles from the details column.
+     */
+    static TMDBMovie mapWithDetails(ResultSet rs) throws SQLException {
+        TMDBMovie movie = map(rs);
+        String details = rs.getString("details");
+        if (details != null) {
+            try {
+                DETAILS_MAPPER.readerForUpdating(movie).readValue(details);
+            } catch (JsonProcessingException e) {
+                throw new SQLException("Unreadable details for movie " + movie.getTmdbId(), e);
+            }
+        }
+        return movie;
+    }
+
+    /**
+     * The details-only fields of a movie as a JSON document for the details column, or
+     * null when the movie came from a list endpoint and has none of them.
+     */
+    static String detailsJson(TMDBMovie movie) {
+        ObjectNode node = DETAILS_MAPPER.valueToTree(movie);
+        node.retain(DETAIL_FIELDS);
+        if (node.isEmpty()) {
+            return null;
+        }
+        try {
+            return DETAILS_MAPPER.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize details of movie " + movie.getTmdbId(), e);
+        }
+    }
+}
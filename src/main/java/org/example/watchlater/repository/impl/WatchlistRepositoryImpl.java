@@ -1,17 +1,19 @@
 package org.example.watchlater.repository.impl;
 
 import org.example.watchlater.config.DatabaseConfig;
-import org.example.watchlater.model.TMDBMovie;
 import org.example.watchlater.model.User;
 import org.example.watchlater.model.WatchlistEntry;
+import org.example.watchlater.model.WatchlistItem;
+import org.example.watchlater.model.WatchlistStatus;
 import org.example.watchlater.repository.WatchlistRepository;
-import org.example.watchlater.repository.MovieRepository;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -19,11 +21,9 @@ import java.util.logging.Level;
 public class WatchlistRepositoryImpl implements WatchlistRepository {
     private static final Logger logger = Logger.getLogger(WatchlistRepositoryImpl.class.getName());
     private final DatabaseConfig dbConfig;
-    private final MovieRepository movieRepository;
     
-    public WatchlistRepositoryImpl(DatabaseConfig dbConfig, MovieRepository movieRepository) {
+    public WatchlistRepositoryImpl(DatabaseConfig dbConfig) {
         this.dbConfig = dbConfig;
-        this.movieRepository = movieRepository;
     }
     
     private <T> T executeQuery(String operation, SQLFunction<T> queryFunction) {
@@ -47,23 +47,18 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
     @Override
     public CompletableFuture<WatchlistEntry> addToWatchlist(Long userId, Integer movieId) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<TMDBMovie> movie = movieRepository.findByTmdbId(movieId);
-            if (movie.isEmpty()) {
-                throw new RuntimeException("Movie not found in database");
-            }
-            
             return executeQuery("adding movie to watchlist", new SQLFunction<WatchlistEntry>() {
                 @Override
                 public String getSql() {
-                    return "INSERT INTO watchlist (user_id, movie_id, watched, added_at) " +
+                    return "INSERT INTO watchlist (user_id, tmdb_id, watched, added_at) " +
                            "VALUES (?, ?, false, CURRENT_TIMESTAMP) " +
-                           "RETURNING id, user_id, movie_id, watched, added_at, watched_at";
+                           "RETURNING id, user_id, tmdb_id, watched, added_at, watched_at";
                 }
 
                 @Override
                 public void setParameters(PreparedStatement stmt) throws SQLException {
                     stmt.setLong(1, userId);
-                    stmt.setInt(2, movie.get().getId().intValue());
+                    stmt.setInt(2, movieId);
                 }
 
                 @Override
@@ -73,6 +68,12 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
                             return mapResultSetToEntry(rs);
                         }
                         throw new SQLException("Failed to add movie to watchlist");
+                    } catch (SQLException e) {
+                        // foreign_key_violation: the movie was never cached
+                        if ("23503".equals(e.getSQLState())) {
+                            throw new RuntimeException("Movie not found in database", e);
+                        }
+                        throw e;
                     }
                 }
             });
@@ -82,21 +83,16 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
     @Override
     public CompletableFuture<Boolean> removeFromWatchlist(Long userId, Integer movieId) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<TMDBMovie> movie = movieRepository.findByTmdbId(movieId);
-            if (movie.isEmpty()) {
-                return false;
-            }
-            
             return executeQuery("removing movie from watchlist", new SQLFunction<Boolean>() {
                 @Override
                 public String getSql() {
-                    return "DELETE FROM watchlist WHERE user_id = ? AND movie_id = ?";
+                    return "DELETE FROM watchlist WHERE user_id = ? AND tmdb_id = ?";
                 }
 
                 @Override
                 public void setParameters(PreparedStatement stmt) throws SQLException {
                     stmt.setLong(1, userId);
-                    stmt.setInt(2, movie.get().getId().intValue());
+                    stmt.setInt(2, movieId);
                 }
 
                 @Override
@@ -110,22 +106,17 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
     @Override
     public CompletableFuture<Boolean> markAsWatched(Long userId, Integer movieId) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<TMDBMovie> movie = movieRepository.findByTmdbId(movieId);
-            if (movie.isEmpty()) {
-                return false;
-            }
-            
             return executeQuery("marking movie as watched", new SQLFunction<Boolean>() {
                 @Override
                 public String getSql() {
                     return "UPDATE watchlist SET watched = true, watched_at = CURRENT_TIMESTAMP " +
-                           "WHERE user_id = ? AND movie_id = ?";
+                           "WHERE user_id = ? AND tmdb_id = ?";
                 }
 
                 @Override
                 public void setParameters(PreparedStatement stmt) throws SQLException {
                     stmt.setLong(1, userId);
-                    stmt.setInt(2, movie.get().getId().intValue());
+                    stmt.setInt(2, movieId);
                 }
 
                 @Override
@@ -139,22 +130,17 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
     @Override
     public CompletableFuture<Boolean> markAsUnwatched(Long userId, Integer movieId) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<TMDBMovie> movie = movieRepository.findByTmdbId(movieId);
-            if (movie.isEmpty()) {
-                return false;
-            }
-            
             return executeQuery("marking movie as unwatched", new SQLFunction<Boolean>() {
                 @Override
                 public String getSql() {
                     return "UPDATE watchlist SET watched = false, watched_at = NULL " +
-                           "WHERE user_id = ? AND movie_id = ?";
+                           "WHERE user_id = ? AND tmdb_id = ?";
                 }
 
                 @Override
                 public void setParameters(PreparedStatement stmt) throws SQLException {
                     stmt.setLong(1, userId);
-                    stmt.setInt(2, movie.get().getId().intValue());
+                    stmt.setInt(2, movieId);
                 }
 
                 @Override
@@ -171,7 +157,7 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
             return executeQuery("getting watchlist", new SQLFunction<List<WatchlistEntry>>() {
                 @Override
                 public String getSql() {
-                    return "SELECT id, user_id, movie_id, watched, added_at, watched_at " +
+                    return "SELECT id, user_id, tmdb_id, watched, added_at, watched_at " +
                            "FROM watchlist WHERE user_id = ? ORDER BY added_at DESC";
                 }
 
@@ -194,24 +180,54 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
         });
     }
     
+    /**
+     * The watchlist with every entry's movie_cache row, newest first, in one joined query
+     * instead of a lookup per entry.
+     */
+    @Override
+    public CompletableFuture<List<WatchlistItem>> getWatchlistItems(Long userId) {
+        return CompletableFuture.supplyAsync(() -> {
+            return executeQuery("getting watchlist items", new SQLFunction<List<WatchlistItem>>() {
+                @Override
+                public String getSql() {
+                    return "SELECT w.id AS entry_id, w.user_id, w.watched, w.added_at, w.watched_at, " +
+                           MovieRowMapper.columns("m") + " " +
+                           "FROM watchlist w JOIN movie_cache m ON m.tmdb_id = w.tmdb_id " +
+                           "WHERE w.user_id = ? ORDER BY w.added_at DESC";
+                }
+
+                @Override
+                public void setParameters(PreparedStatement stmt) throws SQLException {
+                    stmt.setLong(1, userId);
+                }
+
+                @Override
+                public List<WatchlistItem> execute(PreparedStatement stmt) throws SQLException {
+                    List<WatchlistItem> items = new ArrayList<>();
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            items.add(new WatchlistItem(mapResultSetToEntry(rs, "entry_id"), MovieRowMapper.map(rs)));
+                        }
+                    }
+                    return items;
+                }
+            });
+        });
+    }
+    
     @Override
     public CompletableFuture<Boolean> isInWatchlist(Long userId, Integer movieId) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<TMDBMovie> movie = movieRepository.findByTmdbId(movieId);
-            if (movie.isEmpty()) {
-                return false;
-            }
-            
             return executeQuery("checking if movie is in watchlist", new SQLFunction<Boolean>() {
                 @Override
                 public String getSql() {
-                    return "SELECT EXISTS(SELECT 1 FROM watchlist WHERE user_id = ? AND movie_id = ?)";
+                    return "SELECT EXISTS(SELECT 1 FROM watchlist WHERE user_id = ? AND tmdb_id = ?)";
                 }
 
                 @Override
                 public void setParameters(PreparedStatement stmt) throws SQLException {
                     stmt.setLong(1, userId);
-                    stmt.setInt(2, movie.get().getId().intValue());
+                    stmt.setInt(2, movieId);
                 }
 
                 @Override
@@ -227,21 +243,16 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
     @Override
     public CompletableFuture<Boolean> isWatched(Long userId, Integer movieId) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<TMDBMovie> movie = movieRepository.findByTmdbId(movieId);
-            if (movie.isEmpty()) {
-                return false;
-            }
-            
             return executeQuery("checking if movie is watched", new SQLFunction<Boolean>() {
                 @Override
                 public String getSql() {
-                    return "SELECT watched FROM watchlist WHERE user_id = ? AND movie_id = ?";
+                    return "SELECT watched FROM watchlist WHERE user_id = ? AND tmdb_id = ?";
                 }
 
                 @Override
                 public void setParameters(PreparedStatement stmt) throws SQLException {
                     stmt.setLong(1, userId);
-                    stmt.setInt(2, movie.get().getId().intValue());
+                    stmt.setInt(2, movieId);
                 }
 
                 @Override
@@ -254,11 +265,56 @@ public class WatchlistRepositoryImpl implements WatchlistRepository {
         });
     }
     
+    /**
+     * Status of every requested movie from one {@code = ANY(?)} query. Movies that are not
+     * in the watchlist come back as {@link WatchlistStatus#ABSENT}.
+     */
+    @Override
+    public CompletableFuture<Map<Integer, WatchlistStatus>> getWatchlistStatuses(Long userId, Collection<Integer> tmdbIds) {
+        Map<Integer, WatchlistStatus> statuses = new HashMap<>();
+        for (Integer tmdbId : tmdbIds) {
+            statuses.put(tmdbId, WatchlistStatus.ABSENT);
+        }
+        if (statuses.isEmpty()) {
+            return CompletableFuture.completedFuture(statuses);
+        }
+        
+        return CompletableFuture.supplyAsync(() -> {
+            return executeQuery("checking watchlist statuses", new SQLFunction<Map<Integer, WatchlistStatus>>() {
+                @Override
+                public String getSql() {
+                    return "SELECT tmdb_id, watched FROM watchlist WHERE user_id = ? AND tmdb_id = ANY(?)";
+                }
+
+                @Override
+                public void setParameters(PreparedStatement stmt) throws SQLException {
+                    stmt.setLong(1, userId);
+                    stmt.setArray(2, stmt.getConnection().createArrayOf("integer", statuses.keySet().toArray()));
+                }
+
+                @Override
+                public Map<Integer, WatchlistStatus> execute(PreparedStatement stmt) throws SQLException {
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            statuses.put(rs.getInt("tmdb_id"),
+                                rs.getBoolean("watched") ? WatchlistStatus.WATCHED : WatchlistStatus.UNWATCHED);
+                        }
+                    }
+                    return statuses;
+                }
+            });
+        });
+    }
+    
     private WatchlistEntry mapResultSetToEntry(ResultSet rs) throws SQLException {
+        return mapResultSetToEntry(rs, "id");
+    }
+    
+    private WatchlistEntry mapResultSetToEntry(ResultSet rs, String idColumn) throws SQLException {
         return new WatchlistEntry(
-            rs.getLong("id"),
+            rs.getLong(idColumn),
             rs.getLong("user_id"),
-            rs.getInt("movie_id"),
+            rs.getInt("tmdb_id"),
             rs.getTimestamp("added_at").toLocalDateTime(),
             rs.getBoolean("watched"),
             rs.getTimestamp("watched_at") != null ? rs.getTimestamp("watched_at").toLocalDateTime() : null
@@ -1,16 +1,23 @@
 package org.example.watchlater.service;
 
+import org.example.watchlater.model.TMDBMovie;
 import org.example.watchlater.model.WatchlistEntry;
+import org.example.watchlater.model.WatchlistItem;
+import org.example.watchlater.model.WatchlistStatus;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface AsyncWatchlistService {
-    CompletableFuture<WatchlistEntry> addToWatchlist(Long userId, Integer movieId);
+    CompletableFuture<WatchlistEntry> addToWatchlist(Long userId, TMDBMovie movie);
     CompletableFuture<Void> removeFromWatchlist(Long userId, Integer movieId);
     CompletableFuture<List<WatchlistEntry>> getWatchlist(Long userId);
+    CompletableFuture<List<WatchlistItem>> getWatchlistItems(Long userId);
     CompletableFuture<Boolean> markAsWatched(Long userId, Integer movieId);
     CompletableFuture<Boolean> markAsUnwatched(Long userId, Integer movieId);
     CompletableFuture<Boolean> isInWatchlist(Long userId, Integer movieId);
     CompletableFuture<Boolean> isWatched(Long userId, Integer movieId);
+    CompletableFuture<Map<Integer, WatchlistStatus>> getWatchlistStatuses(Long userId, Collection<Integer> tmdbIds);
     void shutdown();
 } 
\ No newline at end of file
@@ -1,13 +1,24 @@
 package org.example.watchlater.service;
 
+import org.example.watchlater.model.ImageConfiguration;
+import org.example.watchlater.model.MoviePage;
 import org.example.watchlater.model.TMDBMovie;
+import org.example.watchlater.model.TitleSuggestion;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface TMDBService {
     CompletableFuture<List<TMDBMovie>> searchMovies(String query);
+    CompletableFuture<MoviePage> searchMovies(String query, int page);
+    CompletableFuture<List<TMDBMovie>> searchLocalMovies(String query, int limit);
+    List<TitleSuggestion> suggestTitles(String prefix, int limit);
     CompletableFuture<Optional<TMDBMovie>> getMovieDetails(int tmdbId);
+    CompletableFuture<Optional<TMDBMovie>> getFullMovieDetails(int tmdbId);
     CompletableFuture<List<TMDBMovie>> getPopularMovies();
+    CompletableFuture<MoviePage> getPopularMovies(int page);
+    void addPopularMoviesListener(Consumer<MoviePage> listener);
     String getImageBaseUrl();
+    ImageConfiguration getImageConfiguration();
 } 
\ No newline at end of file
@@ -2,11 +2,15 @@ package org.example.watchlater.service.impl;
 
 import org.example.watchlater.model.TMDBMovie;
 import org.example.watchlater.model.WatchlistEntry;
+import org.example.watchlater.model.WatchlistItem;
+import org.example.watchlater.model.WatchlistStatus;
 import org.example.watchlater.repository.MovieRepository;
 import org.example.watchlater.repository.WatchlistRepository;
 import org.example.watchlater.service.AsyncWatchlistService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -24,8 +28,10 @@ public class AsyncWatchlistServiceImpl implements AsyncWatchlistService {
     }
 
     @Override
-    public CompletableFuture<WatchlistEntry> addToWatchlist(Long userId, Integer movieId) {
-        return watchlistRepository.addToWatchlist(userId, movieId)
+    public CompletableFuture<WatchlistEntry> addToWatchlist(Long userId, TMDBMovie movie) {
+        // The watchlist row needs the movie_cache row, which the write-behind queue may not have written yet
+        return CompletableFuture.runAsync(() -> movieRepository.save(movie), executorService)
+            .thenCompose(ignored -> watchlistRepository.addToWatchlist(userId, movie.getTmdbId()))
             .exceptionally(ex -> {
                 throw new RuntimeException("Failed to add to watchlist", ex);
             });
@@ -53,6 +59,14 @@ public class AsyncWatchlistServiceImpl implements AsyncWatchlistService {
             });
     }
 
+    @Override
+    public CompletableFuture<List<WatchlistItem>> getWatchlistItems(Long userId) {
+        return watchlistRepository.getWatchlistItems(userId)
+            .exceptionally(ex -> {
+                throw new RuntimeException("Failed to get watchlist", ex);
+            });
+    }
+
     @Override
     public CompletableFuture<Boolean> markAsWatched(Long userId, Integer movieId) {
         return watchlistRepository.markAsWatched(userId, movieId)
@@ -85,6 +99,14 @@ public class AsyncWatchlistServiceImpl implements AsyncWatchlistService {
             });
     }
 
+    @Override
+    public CompletableFuture<Map<Integer, WatchlistStatus>> getWatchlistStatuses(Long userId, Collection<Integer> tmdbIds) {
+        return watchlistRepository.getWatchlistStatuses(userId, tmdbIds)
+            .exceptionally(ex -> {
+                throw new RuntimeException("Failed to check watchlist statuses", ex);
+            });
+    }
+
 
     @Override
     public void shutdown() {
@@ -0,0 +1,304 @@
+package org.example.watchlater.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.watchlater.config.AppProperties;
+import org.example.watchlater.model.TMDBMovie;
+import org.example.watchlater.repository.MovieRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer in front of {@link MovieRepository#saveAll}. Callers hand over
+ * movies and return at once; a background thread writes them in batches. A movie queued
+ * again before it was written is merged into the queued copy field by field, so it is
+ * written once and a list entry never wipes out details queued by an earlier lookup.
+ * <p>
+ * The buffer holds at most {@code capacity} movies. A caller that finds it full waits up
+ * to {@code offerTimeoutMs} for the writer to catch up and drops the rest after that, as
+ * movie_cache is only a cache of TMDB. {@link #flush()} writes everything queued so far
+ * on the calling thread and fails if any of it could not be written; use it before
+ * anything that needs the rows to exist.
+ */
+@Slf4j
+public class MovieCacheWriter {
+    private final MovieRepository movieRepository;
+    private final int capacity;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long offerTimeoutMs;
+
+    // Pending movies by tmdbId, oldest first. Guarded by lock.
+    private final Map<Integer, TMDBMovie> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // Held while a batch is taken and written, so batches reach the database in queue order
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public MovieCacheWriter(MovieRepository movieRepository, int capacity, int batchSize, long lingerMs, long offerTimeoutMs) {
+        this.movieRepository = movieRepository;
+        this.capacity = Math.max(1, capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMs = Math.max(0, lingerMs);
+        this.offerTimeoutMs = Math.max(0, offerTimeoutMs);
+        this.writerThread = new Thread(this::runWriter, "movie-cache-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static MovieCacheWriter fromProperties(MovieRepository movieRepository, AppProperties properties) {
+        return new MovieCacheWriter(movieRepository,
+            properties.getInt("app.cache.write-behind.capacity", 1000),
+            properties.getInt("app.cache.write-behind.batch-size", 100),
+            properties.getLong("app.cache.write-behind.linger-ms", 50),
+            properties.getLong("app.cache.write-behind.offer-timeout-ms", 2000));
+    }
+
+    public void enqueue(TMDBMovie movie) {
+        enqueue(List.of(movie));
+    }
+
+    public void enqueue(Collection<TMDBMovie> movies) {
+        if (closed) {
+            movieRepository.saveAll(movies);
+            return;
+        }
+        lock.lock();
+        try {
+            for (TMDBMovie movie : movies) {
+                if (movie == null || movie.getTmdbId() == null) {
+                    continue;
+                }
+                queued.increment();
+                if (pending.containsKey(movie.getTmdbId())) {
+                    coalesced.increment();
+                    pending.merge(movie.getTmdbId(), movie, MovieCacheWriter::merge);
+                    continue;
+                }
+                if (!awaitSpace()) {
+                    dropped.increment();
+                    continue;
+                }
+                pending.put(movie.getTmdbId(), movie);
+            }
+            if (!pending.isEmpty()) {
+                notEmpty.signal();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A new movie carrying every field of {@code incoming}, with the ones it lacks taken
+     * from {@code queued}. Neither argument is modified, as callers may still hold them.
+     */
+    private static TMDBMovie merge(TMDBMovie queued, TMDBMovie incoming) {
+        return TMDBMovie.builder()
+            .id(either(incoming.getId(), queued.getId()))
+            .tmdbId(incoming.getTmdbId())
+            .title(either(incoming.getTitle(), queued.getTitle()))
+            .overview(either(incoming.getOverview(), queued.getOverview()))
+            .posterPath(either(incoming.getPosterPath(), queued.getPosterPath()))
+            .backdropPath(either(incoming.getBackdropPath(), queued.getBackdropPath()))
+            .releaseDate(either(incoming.getReleaseDate(), queued.getReleaseDate()))
+            .voteAverage(either(incoming.getVoteAverage(), queued.getVoteAverage()))
+            .voteCount(either(incoming.getVoteCount(), queued.getVoteCount()))
+            .genres(either(incoming.getGenres(), queued.getGenres()))
+            .runtime(either(incoming.getRuntime(), queued.getRuntime()))
+            .status(either(incoming.getStatus(), queued.getStatus()))
+            .tagline(either(incoming.getTagline(), queued.getTagline()))
+            .budget(either(incoming.getBudget(), queued.getBudget()))
+            .revenue(either(incoming.getRevenue(), queued.getRevenue()))
+            .homepage(either(incoming.getHomepage(), queued.getHomepage()))
+            .imdbId(either(incoming.getImdbId(), queued.getImdbId()))
+            .originalLanguage(either(incoming.getOriginalLanguage(), queued.getOriginalLanguage()))
+            .originalTitle(either(incoming.getOriginalTitle(), queued.getOriginalTitle()))
+            .popularity(either(incoming.getPopularity(), queued.getPopularity()))
+            .adult(either(incoming.getAdult(), queued.getAdult()))
+            .video(either(incoming.getVideo(), queued.getVideo()))
+            .credits(either(incoming.getCredits(), queued.getCredits()))
+            .videos(either(incoming.getVideos(), queued.getVideos()))
+            .similar(either(incoming.getSimilar(), queued.getSimilar()))
+            .detailsUpdatedAt(either(incoming.getDetailsUpdatedAt(), queued.getDetailsUpdatedAt()))
+            .build();
+    }
+
+    private static <T> T either(T preferred, T fallback) {
+        return preferred != null ? preferred : fallback;
+    }
+
+    private boolean awaitSpace() throws InterruptedException {
+        if (pending.size() < capacity) {
+            return true;
+        }
+        blocked.increment();
+        notEmpty.signal();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        while (pending.size() >= capacity) {
+            if (remaining <= 0) {
+                return false;
+            }
+            remaining = notFull.awaitNanos(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Writes every movie queued so far before returning. If a batch fails, the remaining
+     * ones are still attempted and the first failure is rethrown.
+     */
+    public void flush() {
+        RuntimeException failure = null;
+        writeLock.lock();
+        try {
+            List<TMDBMovie> batch;
+            while (!(batch = take(Integer.MAX_VALUE)).isEmpty()) {
+                RuntimeException batchFailure = write(batch);
+                if (failure == null) {
+                    failure = batchFailure;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void runWriter() {
+        while (!closed) {
+            try {
+                boolean batchReady;
+                lock.lock();
+                try {
+                    while (pending.isEmpty() && !closed) {
+                        notEmpty.await();
+                    }
+                    batchReady = pending.size() >= Math.min(batchSize, capacity) || lock.hasWaiters(notFull);
+                } finally {
+                    lock.unlock();
+                }
+                // Give the rest of a page a moment to arrive so it goes out in the same batch
+                if (lingerMs > 0 && !batchReady && !closed) {
+                    Thread.sleep(lingerMs);
+                }
+                writeLock.lock();
+                try {
+                    List<TMDBMovie> batch = take(batchSize);
+                    if (!batch.isEmpty()) {
+                        write(batch);
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private List<TMDBMovie> take(int max) {
+        lock.lock();
+        try {
+            List<TMDBMovie> batch = new ArrayList<>(Math.min(max, pending.size()));
+            Iterator<TMDBMovie> iterator = pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < max) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            if (!batch.isEmpty()) {
+                notFull.signalAll();
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the failure instead of throwing it, so the background loop keeps running.
+     */
+    private RuntimeException write(List<TMDBMovie> batch) {
+        try {
+            movieRepository.saveAll(batch);
+            written.add(batch.size());
+            batches.increment();
+            return null;
+        } catch (RuntimeException e) {
+            failures.increment();
+            dropped.add(batch.size());
+            log.warn("Could not write {} movies to movie_cache: {}", batch.size(), e.getMessage());
+            return e;
+        }
+    }
+
+    /**
+     * Stops the background writer and writes whatever is still queued.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Already logged and counted as dropped; nothing more to do on shutdown
+        }
+    }
+
+    public Stats getStats() {
+        int size;
+        lock.lock();
+        try {
+            size = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(queued.sum(), coalesced.sum(), written.sum(), batches.sum(),
+            failures.sum(), blocked.sum(), dropped.sum(), size, capacity);
+    }
+
+    /**
+     * {@code coalesced} movies were merged into a queued copy, {@code blocked} callers had to wait
+     * for space and {@code dropped} movies were never written, either because the buffer
+     * stayed full or because their batch failed.
+     */
+    public record Stats(long queued, long coalesced, long written, long batches, long failures,
+                        long blocked, long dropped, int pending, int capacity) {
+        public double averageBatchSize() {
+            return batches == 0 ? 0.0 : (double) written / batches;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.watchlater.service.impl;
+
+import org.example.watchlater.model.MoviePage;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of search and popular-list pages. "The Matrix", "the  matrix " and
+ * "THE MATRIX" share an entry: queries are case-folded and whitespace-collapsed, then
+ * URL-encoded the way they go on the wire. Each kind has its own time to live, and the
+ * least recently used entry is evicted once {@code maxEntries} is reached.
+ */
+public class ResultCache {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public enum Kind { SEARCH, POPULAR }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Map<Kind, Duration> ttls;
+    private final Map<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResultCache(boolean enabled, int maxEntries, Duration searchTtl, Duration popularTtl) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttls = Map.of(Kind.SEARCH, searchTtl, Kind.POPULAR, popularTtl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ResultCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static Key key(Kind kind, String query, int page, String language) {
+        return new Key(kind, normalize(query), page, language);
+    }
+
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String folded = WHITESPACE.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return URLEncoder.encode(folded, StandardCharsets.UTF_8);
+    }
+
+    public Optional<MoviePage> get(Key key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            if (entry.expiresAt().isBefore(Instant.now())) {
+                entries.remove(key);
+                expirations.increment();
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(entry.page());
+        }
+    }
+
+    public void put(Key key, MoviePage page) {
+        // Offline pages are a stand-in for TMDB and must not outlive the outage
+        if (!enabled || page.isOffline()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(page, Instant.now().plus(ttls.get(key.kind()))));
+        }
+    }
+
+    public void invalidate(Kind kind) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.kind() == kind);
+        }
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), expirations.sum(), evictions.sum(), size, maxEntries);
+    }
+
+    public record Key(Kind kind, String query, int page, String language) {
+    }
+
+    private record Entry(MoviePage page, Instant expiresAt) {
+    }
+
+    /**
+     * {@code misses} include lookups that found an expired entry ({@code expirations}).
+     */
+    public record Stats(long hits, long misses, long expirations, long evictions, int size, int maxEntries) {
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
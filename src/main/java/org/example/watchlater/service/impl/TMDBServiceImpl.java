@@ -1,64 +1,543 @@
 package org.example.watchlater.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.example.watchlater.config.AppProperties;
+import org.example.watchlater.model.ImageConfiguration;
+import org.example.watchlater.model.MoviePage;
+import org.example.watchlater.model.PopularSnapshot;
 import org.example.watchlater.model.TMDBMovie;
+import org.example.watchlater.model.TitleSuggestion;
 import org.example.watchlater.repository.MovieRepository;
 import org.example.watchlater.service.TMDBService;
+import org.example.watchlater.util.CallHandle;
+import org.example.watchlater.util.IoExecutor;
+import org.example.watchlater.util.TMDBApiException;
 import org.example.watchlater.util.TMDBClient;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 @Slf4j
 public class TMDBServiceImpl implements TMDBService {
+    private static final int FULL_DETAILS_CACHE_SIZE = 200;
+    private static final int OFFLINE_RESULT_LIMIT = 50;
+    private static final String IMAGE_CONFIGURATION_FILE = "tmdb-configuration.json";
+    private static final ObjectMapper CONFIGURATION_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
     private final TMDBClient tmdbClient;
     private final MovieRepository movieRepository;
-    private final String imageBaseUrl;
+    private final MovieCacheWriter cacheWriter;
+    private final IoExecutor ioExecutor;
+    
+    // TMDB asks clients to keep /configuration for a few days. The copy on disk survives
+    // restarts; the built-in defaults cover the very first start until the fetch lands.
+    private final Path imageConfigurationFile;
+    private final Duration imageConfigurationMaxAge;
+    private volatile ImageConfiguration imageConfiguration;
+    
+    // Detail lookups currently running, keyed by tmdbId. Concurrent callers for the
+    // same movie share one future, so only one cache check and one TMDB call are made.
+    private final Map<Integer, CompletableFuture<Optional<TMDBMovie>>> inFlightDetails = new ConcurrentHashMap<>();
+    private final Map<Integer, CompletableFuture<Optional<TMDBMovie>>> inFlightFullDetails = new ConcurrentHashMap<>();
+    private final LongAdder detailsRequests = new LongAdder();
+    private final LongAdder detailsCoalesced = new LongAdder();
+    private final LongAdder detailsCacheHits = new LongAdder();
+    private final LongAdder detailsFetches = new LongAdder();
     
-    public TMDBServiceImpl(TMDBClient tmdbClient, MovieRepository movieRepository) {
+    // Composite details (with credits, videos and similar titles) kept as one unit,
+    // least recently used entries evicted first. Guarded by its own monitor.
+    private final Map<Integer, CachedMovie> fullDetailsCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CachedMovie> eldest) {
+            return size() > FULL_DETAILS_CACHE_SIZE;
+        }
+    };
+    private final Duration detailsTtl;
+    private final TitleIndex titleIndex;
+    private final ResultCache resultCache;
+    
+    // Popular page 1 is served from the last persisted snapshot and refreshed in the
+    // background; listeners hear about it only when the ranking changed.
+    private final Duration popularRefreshInterval;
+    private final CompletableFuture<Void> popularSnapshotLoaded;
+    private final ScheduledExecutorService popularRefreshScheduler;
+    private final ReentrantLock popularRefreshLock = new ReentrantLock();
+    private final List<Consumer<MoviePage>> popularListeners = new CopyOnWriteArrayList<>();
+    private volatile PopularSnapshot popularSnapshot;
+    
+    public TMDBServiceImpl(TMDBClient tmdbClient, MovieRepository movieRepository,
+                           MovieCacheWriter cacheWriter, IoExecutor ioExecutor) {
         this.tmdbClient = tmdbClient;
         this.movieRepository = movieRepository;
-        this.imageBaseUrl = tmdbClient.getImageBaseUrl();
+        this.cacheWriter = cacheWriter;
+        this.ioExecutor = ioExecutor;
+        AppProperties properties = AppProperties.getInstance();
+        this.imageConfiguration = ImageConfiguration.defaults(tmdbClient.getImageBaseUrl());
+        this.imageConfigurationFile = properties.getDataDirectory().resolve(IMAGE_CONFIGURATION_FILE);
+        this.imageConfigurationMaxAge = Duration.ofDays(properties.getInt("tmdb.configuration.refresh-days", 3));
+        ioExecutor.execute(this::loadImageConfiguration);
+        this.detailsTtl = Duration.ofHours(properties.getInt("tmdb.api.cache-expiration-hours", 24));
+        this.resultCache = new ResultCache(
+            properties.getBoolean("app.cache-enabled", true),
+            properties.getInt("app.cache.max-entries", 200),
+            Duration.ofHours(properties.getInt("app.cache-expiration-hours", 24)),
+            Duration.ofMinutes(properties.getInt("app.cache.popular-ttl-minutes", 60)));
+        
+        int maxTitleKeys = properties.getInt("app.autocomplete.max-keys", 500_000);
+        this.titleIndex = new TitleIndex(maxTitleKeys);
+        movieRepository.addSaveListener(titleIndex::add);
+        ioExecutor.execute(() -> titleIndex.build(consumer -> movieRepository.forEachTitle(maxTitleKeys, consumer)));
+        
+        this.popularRefreshInterval = Duration.ofMinutes(properties.getInt("app.popular.refresh-minutes", 30));
+        this.popularSnapshotLoaded = CompletableFuture.runAsync(
+                () -> movieRepository.findPopularSnapshot().ifPresent(snapshot -> popularSnapshot = snapshot), ioExecutor)
+            .exceptionally(ex -> {
+                // Carry on without it; page 1 then fetches a fresh snapshot
+                log.warn("Could not read the stored popular snapshot: {}", ex.getMessage());
+                return null;
+            });
+        this.popularRefreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "popular-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMinutes = popularRefreshInterval.toMinutes();
+        // 0 disables the refresh; the persisted snapshot is served as it is
+        if (intervalMinutes > 0) {
+            popularRefreshScheduler.scheduleWithFixedDelay(
+                () -> ioExecutor.execute(this::refreshPopularIfIdle), intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
     }
     
     @Override
     public CompletableFuture<List<TMDBMovie>> searchMovies(String query) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<TMDBMovie> movies = tmdbClient.searchMovies(query);
-            for (TMDBMovie movie : movies) {
-                movieRepository.save(movie);
+        return searchMovies(query, 1).thenApply(MoviePage::getResults);
+    }
+    
+    @Override
+    public CompletableFuture<MoviePage> searchMovies(String query, int page) {
+        ResultCache.Key key = ResultCache.key(ResultCache.Kind.SEARCH, query, page, tmdbClient.getLanguage());
+        Optional<MoviePage> cached = resultCache.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        
+        // Cancelling the returned future aborts the HTTP call, so superseded searches stop early
+        CallHandle handle = new CallHandle();
+        CompletableFuture<MoviePage> future = CompletableFuture.supplyAsync(() -> {
+            if (!tmdbClient.isAvailable()) {
+                return offlinePage(page, () -> movieRepository.searchByTitle(query, OFFLINE_RESULT_LIMIT));
+            }
+            try {
+                MoviePage moviePage = tmdbClient.searchMovies(query, page, handle);
+                cacheWriter.enqueue(moviePage.getResults());
+                resultCache.put(key, moviePage);
+                return moviePage;
+            } catch (TMDBApiException e) {
+                log.warn("TMDB search failed, answering from movie_cache: {}", e.getMessage());
+                return offlinePage(page, () -> movieRepository.searchByTitle(query, OFFLINE_RESULT_LIMIT));
+            }
+        }, ioExecutor);
+        future.whenComplete((moviePage, ex) -> {
+            if (future.isCancelled()) {
+                handle.cancel();
             }
-            return movies;
         });
+        return future;
+    }
+    
+    /**
+     * Searches movie_cache only. Answers in milliseconds, so callers can show these hits
+     * while {@link #searchMovies(String, int)} is still waiting on TMDB.
+     */
+    @Override
+    public CompletableFuture<List<TMDBMovie>> searchLocalMovies(String query, int limit) {
+        return CompletableFuture.supplyAsync(() -> movieRepository.searchByTitle(query, limit), ioExecutor);
+    }
+    
+    /**
+     * Autocomplete from the in-memory title index; no database or network access, so it
+     * is safe to call on the FX thread for every keystroke.
+     */
+    @Override
+    public List<TitleSuggestion> suggestTitles(String prefix, int limit) {
+        return titleIndex.suggest(prefix, limit);
+    }
+    
+    public TitleIndex.Stats getTitleIndexStats() {
+        return titleIndex.getStats();
     }
     
     @Override
     public CompletableFuture<Optional<TMDBMovie>> getMovieDetails(int tmdbId) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (movieRepository.isCachedAndNotExpired(tmdbId, 24)) {
-                return movieRepository.findByTmdbId(tmdbId);
+        return coalesce(inFlightDetails, tmdbId, () -> loadMovieDetails(tmdbId));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<TMDBMovie>> getFullMovieDetails(int tmdbId) {
+        return coalesce(inFlightFullDetails, tmdbId, () -> loadFullMovieDetails(tmdbId));
+    }
+    
+    private CompletableFuture<Optional<TMDBMovie>> coalesce(
+            Map<Integer, CompletableFuture<Optional<TMDBMovie>>> inFlight,
+            int tmdbId, Supplier<Optional<TMDBMovie>> loader) {
+        detailsRequests.increment();
+
+        CompletableFuture<Optional<TMDBMovie>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<TMDBMovie>> existing = inFlight.putIfAbsent(tmdbId, lookup);
+        if (existing != null) {
+            detailsCoalesced.increment();
+            // Hand out a copy so one caller cancelling does not affect the others
+            return existing.copy();
+        }
+
+        try {
+            CompletableFuture.supplyAsync(loader, ioExecutor)
+                .whenComplete((movie, ex) -> {
+                    // Leave the table before completing, so later callers re-check the cache
+                    inFlight.remove(tmdbId, lookup);
+                    if (ex != null) {
+                        lookup.completeExceptionally(ex);
+                    } else {
+                        lookup.complete(movie);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            // Nothing will run the loader, so do not leave callers waiting on the entry
+            inFlight.remove(tmdbId, lookup);
+            lookup.completeExceptionally(e);
+        }
+        return lookup.copy();
+    }
+    
+    private Optional<TMDBMovie> loadMovieDetails(int tmdbId) {
+        // A cached composite is a superset of the plain details
+        Optional<TMDBMovie> full = cachedFullDetails(tmdbId);
+        if (full.isPresent()) {
+            detailsCacheHits.increment();
+            return full;
+        }
+        
+        Optional<TMDBMovie> fresh = movieRepository.findFreshByTmdbId(tmdbId, detailsTtl);
+        if (fresh.isPresent()) {
+            detailsCacheHits.increment();
+            return fresh;
+        }
+        
+        if (!tmdbClient.isAvailable()) {
+            // A stale row beats no row while TMDB is down
+            return movieRepository.findByTmdbId(tmdbId);
+        }
+        
+        detailsFetches.increment();
+        Optional<TMDBMovie> movieOpt;
+        try {
+            movieOpt = tmdbClient.getMovieDetails(tmdbId);
+        } catch (TMDBApiException e) {
+            log.warn("TMDB details failed for {}, answering from movie_cache: {}", tmdbId, e.getMessage());
+            return movieRepository.findByTmdbId(tmdbId);
+        }
+        movieOpt.ifPresent(this::storeDetails);
+        return movieOpt;
+    }
+    
+    private Optional<TMDBMovie> loadFullMovieDetails(int tmdbId) {
+        Optional<TMDBMovie> cached = cachedFullDetails(tmdbId);
+        if (cached.isPresent()) {
+            detailsCacheHits.increment();
+            return cached;
+        }
+        
+        // Survives restarts and the in-memory cache's size limit
+        Optional<TMDBMovie> stored = storedFullDetails(tmdbId);
+        if (stored.isPresent()) {
+            detailsCacheHits.increment();
+            return stored;
+        }
+        
+        if (!tmdbClient.isAvailable()) {
+            return movieRepository.findByTmdbId(tmdbId);
+        }
+        
+        detailsFetches.increment();
+        Optional<TMDBMovie> movieOpt;
+        try {
+            movieOpt = tmdbClient.getFullMovieDetails(tmdbId);
+        } catch (TMDBApiException e) {
+            log.warn("TMDB full details failed for {}, answering from movie_cache: {}", tmdbId, e.getMessage());
+            return movieRepository.findByTmdbId(tmdbId);
+        }
+        movieOpt.ifPresent(movie -> {
+            storeDetails(movie);
+            synchronized (fullDetailsCache) {
+                fullDetailsCache.put(tmdbId, new CachedMovie(movie, Instant.now()));
             }
-            
-            Optional<TMDBMovie> movieOpt = tmdbClient.getMovieDetails(tmdbId);
-            movieOpt.ifPresent(movieRepository::save);
-            return movieOpt;
         });
+        return movieOpt;
+    }
+    
+    /**
+     * Writes a single fetched movie straight away rather than through the write-behind
+     * buffer, so reopening it right after finds the row instead of fetching it again.
+     */
+    private void storeDetails(TMDBMovie movie) {
+        try {
+            movieRepository.save(movie);
+        } catch (RuntimeException e) {
+            log.warn("Could not store details of movie {}: {}", movie.getTmdbId(), e.getMessage());
+        }
+    }
+    
+    private Optional<TMDBMovie> storedFullDetails(int tmdbId) {
+        Optional<TMDBMovie> stored = movieRepository.findByTmdbId(tmdbId);
+        if (stored.isEmpty() || stored.get().getCredits() == null || stored.get().getDetailsUpdatedAt() == null) {
+            return Optional.empty();
+        }
+        Instant fetchedAt = stored.get().getDetailsUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        if (fetchedAt.plus(detailsTtl).isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        synchronized (fullDetailsCache) {
+            fullDetailsCache.put(tmdbId, new CachedMovie(stored.get(), fetchedAt));
+        }
+        return stored;
+    }
+    
+    private Optional<TMDBMovie> cachedFullDetails(int tmdbId) {
+        synchronized (fullDetailsCache) {
+            CachedMovie cached = fullDetailsCache.get(tmdbId);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            if (cached.fetchedAt().plus(detailsTtl).isBefore(Instant.now())) {
+                fullDetailsCache.remove(tmdbId);
+                return Optional.empty();
+            }
+            return Optional.of(cached.movie());
+        }
+    }
+    
+    public DetailsLookupStats getDetailsLookupStats() {
+        return new DetailsLookupStats(
+            detailsRequests.sum(),
+            detailsCoalesced.sum(),
+            detailsCacheHits.sum(),
+            detailsFetches.sum(),
+            inFlightDetails.size() + inFlightFullDetails.size()
+        );
+    }
+    
+    public ResultCache.Stats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+    
+    public IoExecutor.Stats getExecutorStats() {
+        return ioExecutor.getStats();
+    }
+    
+    public MovieCacheWriter.Stats getCacheWriterStats() {
+        return cacheWriter.getStats();
     }
     
     @Override
     public String getImageBaseUrl() {
-        return imageBaseUrl;
+        return imageConfiguration.getSecureBaseUrl();
+    }
+    
+    @Override
+    public ImageConfiguration getImageConfiguration() {
+        return imageConfiguration;
+    }
+    
+    private void loadImageConfiguration() {
+        readStoredImageConfiguration().ifPresent(stored -> imageConfiguration = stored);
+        Instant fetchedAt = imageConfiguration.getFetchedAt();
+        if (fetchedAt != null && fetchedAt.plus(imageConfigurationMaxAge).isAfter(Instant.now())) {
+            return;
+        }
+        if (!tmdbClient.isAvailable()) {
+            return;
+        }
+        try {
+            tmdbClient.getImageConfiguration().ifPresent(fetched -> {
+                fetched.setFetchedAt(Instant.now());
+                imageConfiguration = fetched;
+                storeImageConfiguration(fetched);
+            });
+        } catch (TMDBApiException e) {
+            log.warn("Could not fetch TMDB configuration, keeping {}: {}",
+                fetchedAt != null ? "stored copy" : "defaults", e.getMessage());
+        }
+    }
+    
+    private Optional<ImageConfiguration> readStoredImageConfiguration() {
+        if (!Files.isRegularFile(imageConfigurationFile)) {
+            return Optional.empty();
+        }
+        try {
+            ImageConfiguration stored = CONFIGURATION_MAPPER.readValue(imageConfigurationFile.toFile(), ImageConfiguration.class);
+            return stored.isComplete() ? Optional.of(stored) : Optional.empty();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable {}: {}", imageConfigurationFile, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private void storeImageConfiguration(ImageConfiguration configuration) {
+        try {
+            Files.createDirectories(imageConfigurationFile.getParent());
+            CONFIGURATION_MAPPER.writeValue(imageConfigurationFile.toFile(), configuration);
+        } catch (IOException e) {
+            log.warn("Could not store TMDB configuration in {}: {}", imageConfigurationFile, e.getMessage());
+        }
     }
     
     @Override
     public CompletableFuture<List<TMDBMovie>> getPopularMovies() {
+        return getPopularMovies(1).thenApply(MoviePage::getResults);
+    }
+    
+    @Override
+    public CompletableFuture<MoviePage> getPopularMovies(int page) {
+        if (page == 1) {
+            return popularSnapshotLoaded.thenCompose(loaded -> {
+                PopularSnapshot snapshot = popularSnapshot;
+                if (snapshot == null) {
+                    // First run, nothing persisted yet
+                    return CompletableFuture.supplyAsync(this::refreshPopularSnapshot, ioExecutor);
+                }
+                if (popularRefreshInterval.toMinutes() > 0
+                        && snapshot.refreshedAt().plus(popularRefreshInterval).isBefore(Instant.now())) {
+                    ioExecutor.execute(this::refreshPopularIfIdle);
+                }
+                return CompletableFuture.completedFuture(snapshot.toPage());
+            });
+        }
+        
+        ResultCache.Key key = ResultCache.key(ResultCache.Kind.POPULAR, null, page, tmdbClient.getLanguage());
+        Optional<MoviePage> cached = resultCache.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        
         return CompletableFuture.supplyAsync(() -> {
-            List<TMDBMovie> movies = tmdbClient.getPopularMovies();
-            for (TMDBMovie movie : movies) {
-                movieRepository.save(movie);
+            if (!tmdbClient.isAvailable()) {
+                return offlinePage(page, () -> movieRepository.findPopular(OFFLINE_RESULT_LIMIT));
             }
-            return movies;
-        });
+            try {
+                MoviePage moviePage = tmdbClient.getPopularMovies(page);
+                cacheWriter.enqueue(moviePage.getResults());
+                resultCache.put(key, moviePage);
+                return moviePage;
+            } catch (TMDBApiException e) {
+                log.warn("TMDB popular list failed, answering from movie_cache: {}", e.getMessage());
+                return offlinePage(page, () -> movieRepository.findPopular(OFFLINE_RESULT_LIMIT));
+            }
+        }, ioExecutor);
+    }
+    
+    /**
+     * Fetches popular page 1 and persists it as the new snapshot. Listeners are told only
+     * if the ranking differs from the previous snapshot. If TMDB cannot be reached, the
+     * current snapshot (or, with none yet, the most popular cached movies) is returned.
+     */
+    private MoviePage refreshPopularSnapshot() {
+        popularRefreshLock.lock();
+        try {
+            PopularSnapshot previous = popularSnapshot;
+            if (!tmdbClient.isAvailable()) {
+                return previous != null ? previous.toPage()
+                    : offlinePage(1, () -> movieRepository.findPopular(OFFLINE_RESULT_LIMIT));
+            }
+            
+            MoviePage fresh = tmdbClient.getPopularMovies(1);
+            if (fresh.getResults().isEmpty()) {
+                return previous != null ? previous.toPage() : fresh;
+            }
+            // Written directly: popular_snapshot references these rows
+            movieRepository.saveAll(fresh.getResults());
+            PopularSnapshot snapshot = new PopularSnapshot(fresh.getResults(), fresh.getTotalPages(), Instant.now());
+            movieRepository.replacePopularSnapshot(snapshot.ranking(), snapshot.totalPages());
+            popularSnapshot = snapshot;
+            
+            if (previous != null && !previous.ranking().equals(snapshot.ranking())) {
+                log.info("Popular movies ranking changed, notifying {} listeners", popularListeners.size());
+                // Later pages were ranked against the old list
+                resultCache.invalidate(ResultCache.Kind.POPULAR);
+                MoviePage page = snapshot.toPage();
+                popularListeners.forEach(listener -> listener.accept(page));
+            }
+            return fresh;
+        } catch (TMDBApiException e) {
+            log.warn("Refreshing popular movies failed: {}", e.getMessage());
+            PopularSnapshot current = popularSnapshot;
+            return current != null ? current.toPage()
+                : offlinePage(1, () -> movieRepository.findPopular(OFFLINE_RESULT_LIMIT));
+        } finally {
+            popularRefreshLock.unlock();
+        }
+    }
+    
+    private void refreshPopularIfIdle() {
+        // A refresh already running will publish its result; no need to queue another
+        if (!popularRefreshLock.isLocked()) {
+            refreshPopularSnapshot();
+        }
+    }
+    
+    @Override
+    public void addPopularMoviesListener(Consumer<MoviePage> listener) {
+        popularListeners.add(listener);
+    }
+    
+    public void shutdown() {
+        popularRefreshScheduler.shutdownNow();
+    }
+    
+    /**
+     * Local results are served as one page, so only page 1 has content.
+     */
+    private MoviePage offlinePage(int page, Supplier<List<TMDBMovie>> localLookup) {
+        if (page > 1) {
+            MoviePage empty = MoviePage.empty(page);
+            empty.setOffline(true);
+            return empty;
+        }
+        return MoviePage.offline(localLookup.get());
+    }
+    
+    private record CachedMovie(TMDBMovie movie, Instant fetchedAt) {
+    }
+    
+    /**
+     * Counters for {@link #getMovieDetails(int)} and {@link #getFullMovieDetails(int)}. {@code coalesced} calls joined a lookup
+     * that was already running; {@code cacheHits} and {@code fetches} count the lookups
+     * that actually ran, split by whether they were answered from movie_cache or TMDB.
+     */
+    public record DetailsLookupStats(long requests, long coalesced, long cacheHits, long fetches, int inFlight) {
+        public double coalescedRatio() {
+            return requests == 0 ? 0.0 : (double) coalesced / requests;
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,455 @@
+package org.example.watchlater.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.watchlater.model.MovieTitle;
+import org.example.watchlater.model.TMDBMovie;
+import org.example.watchlater.model.TitleSuggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over movie titles for autocomplete.
+ * <p>
+ * The bulk of the entries live in an immutable snapshot: one sorted array of normalized
+ * keys, searched with binary search, pointing into parallel per-movie arrays. Each title
+ * is keyed from every word start, so "kni" finds "The Dark Knight". Rows saved after the
+ * snapshot was built go to a small concurrent delta map, which is folded into a fresh
+ * snapshot once it grows past {@link #MAX_DELTA_MOVIES}.
+ * <p>
+ * Prefixes of up to {@link #SHORT_PREFIX_LENGTH} characters match too many keys to rank
+ * at lookup time, so the snapshot keeps their best {@link #SHORT_PREFIX_TOP} movies
+ * precomputed and such lookups only rank those.
+ * <p>
+ * Memory is bounded by {@code maxKeys}: movies are indexed in priority order (watchlist
+ * first, then by popularity) until the key budget is used up. Once it is, saved movies
+ * that rank below the last indexed one are not taken into the delta at all.
+ */
+@Slf4j
+public class TitleIndex {
+    private static final int MAX_DELTA_MOVIES = 4096;
+    // Upper bound on the prefix matches ranked per lookup of a longer prefix
+    private static final int MAX_SCAN = 2048;
+    private static final int SHORT_PREFIX_LENGTH = 3;
+    private static final int SHORT_PREFIX_TOP = 32;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Watchlist titles first, then the most popular
+    private static final Comparator<Movie> RANKING = Comparator.comparing(Movie::inWatchlist).reversed()
+        .thenComparing(Comparator.comparingDouble(Movie::popularity).reversed());
+
+    private final int maxKeys;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // Set once the first build is published; until then the build absorbs the delta
+    private volatile boolean ready;
+    private final ConcurrentSkipListMap<String, Integer> deltaKeys = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Movie> deltaMovies = new ConcurrentHashMap<>();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    public TitleIndex(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Replaces the index with the titles produced by {@code source}, which is expected
+     * to deliver them in priority order.
+     */
+    public void build(Consumer<Consumer<MovieTitle>> source) {
+        long start = System.nanoTime();
+        Map<Integer, Movie> movies = new LinkedHashMap<>();
+        source.accept(title -> movies.putIfAbsent(title.tmdbId(),
+            new Movie(title.tmdbId(), title.title(), title.originalTitle(), title.popularity(), title.inWatchlist())));
+        synchronized (this) {
+            // Rows saved while the build was running are newer than what it read
+            movies.putAll(deltaMovies);
+            List<Movie> ordered = new ArrayList<>(movies.values());
+            ordered.sort(RANKING);
+            publish(ordered, Map.copyOf(deltaKeys));
+        }
+        ready = true;
+        Stats stats = getStats();
+        log.info("Title index built in {} ms: {} movies, {} keys, ~{} KB",
+            (System.nanoTime() - start) / 1_000_000, stats.movies(), stats.keys(), stats.estimatedBytes() / 1024);
+    }
+
+    public void add(TMDBMovie movie) {
+        if (movie.getTmdbId() == null || movie.getTitle() == null) {
+            return;
+        }
+        Movie existing = findMovie(movie.getTmdbId());
+        Movie updated = new Movie(movie.getTmdbId(), movie.getTitle(), movie.getOriginalTitle(),
+            movie.getPopularity() != null ? movie.getPopularity() : 0.0,
+            existing != null && existing.inWatchlist());
+        if (updated.sameText(existing) && existing.popularity() == updated.popularity()) {
+            return;
+        }
+        Movie floor = snapshot.floor;
+        if (existing == null && floor != null && RANKING.compare(updated, floor) > 0) {
+            // The key budget is full and this movie would not make the next snapshot
+            return;
+        }
+
+        deltaMovies.put(updated.tmdbId(), updated);
+        for (String key : keysOf(updated)) {
+            deltaKeys.put(key + '\u0000' + updated.tmdbId(), updated.tmdbId());
+        }
+        if (ready && deltaMovies.size() > MAX_DELTA_MOVIES) {
+            mergeDelta();
+        }
+    }
+
+    private synchronized void mergeDelta() {
+        if (deltaMovies.size() <= MAX_DELTA_MOVIES) {
+            return;
+        }
+        Map<Integer, Movie> movies = new LinkedHashMap<>();
+        Snapshot current = snapshot;
+        for (int i = 0; i < current.tmdbIds.length; i++) {
+            movies.put(current.tmdbIds[i], current.movie(i));
+        }
+        movies.putAll(deltaMovies);
+        List<Movie> ordered = new ArrayList<>(movies.values());
+        ordered.sort(RANKING);
+        publish(ordered, Map.copyOf(deltaKeys));
+    }
+
+    /**
+     * Builds a snapshot from {@code movies}, which must be in ranking order, and drops the
+     * delta entries it absorbed. Movies that did not fit the key budget leave the delta
+     * too; entries added concurrently stay.
+     */
+    private void publish(List<Movie> movies, Map<String, Integer> absorbedKeys) {
+        List<Movie> indexed = new ArrayList<>();
+        List<String[]> movieKeys = new ArrayList<>();
+        int keyCount = 0;
+        boolean full = false;
+        for (Movie movie : movies) {
+            String[] keys = keysOf(movie).toArray(String[]::new);
+            if (keyCount + keys.length > maxKeys) {
+                full = true;
+                break;
+            }
+            keyCount += keys.length;
+            indexed.add(movie);
+            movieKeys.add(keys);
+        }
+        Movie floor = full && !indexed.isEmpty() ? indexed.get(indexed.size() - 1) : null;
+        snapshot = Snapshot.of(indexed, movieKeys, keyCount, floor);
+        absorbedKeys.forEach(deltaKeys::remove);
+        for (Movie movie : movies) {
+            deltaMovies.remove(movie.tmdbId(), movie);
+        }
+    }
+
+    /**
+     * Suggestions whose title has a word starting with {@code prefix}, most popular first.
+     */
+    public List<TitleSuggestion> suggest(String prefix, int limit) {
+        long start = System.nanoTime();
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Bounded top-k selection over the matching keys; a movie matched through several
+        // of its keys is only taken once
+        Snapshot current = snapshot;
+        Movie[] top = new Movie[limit];
+        int found = 0;
+        if (key.length() <= SHORT_PREFIX_LENGTH && limit <= SHORT_PREFIX_TOP) {
+            for (int ref : current.shortPrefixTop.getOrDefault(key, new int[0])) {
+                Movie movie = deltaMovies.get(current.tmdbIds[ref]);
+                found = offer(top, found, movie != null ? movie : current.movie(ref));
+            }
+        } else {
+            int from = current.lowerBound(key);
+            for (int i = from; i < current.keys.length && i - from < MAX_SCAN && current.keys[i].startsWith(key); i++) {
+                int ref = current.refs[i];
+                if (found < limit || current.ranksBefore(ref, top[limit - 1])) {
+                    Movie movie = deltaMovies.get(current.tmdbIds[ref]);
+                    found = offer(top, found, movie != null ? movie : current.movie(ref));
+                }
+            }
+        }
+        int scanned = 0;
+        for (Integer tmdbId : deltaKeys.subMap(key, key + '\uffff').values()) {
+            if (++scanned > MAX_SCAN) {
+                break;
+            }
+            Movie movie = deltaMovies.get(tmdbId);
+            if (movie != null) {
+                found = offer(top, found, movie);
+            }
+        }
+
+        List<TitleSuggestion> suggestions = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            suggestions.add(new TitleSuggestion(top[i].tmdbId(), top[i].title(), top[i].popularity()));
+        }
+        lookups.increment();
+        lookupNanos.add(System.nanoTime() - start);
+        return suggestions;
+    }
+
+    /**
+     * Inserts {@code movie} into the ranked array {@code top} holding {@code found}
+     * entries, unless it is already there or ranks below all of them. Returns the new count.
+     */
+    private static int offer(Movie[] top, int found, Movie movie) {
+        for (int i = 0; i < found; i++) {
+            if (top[i].tmdbId() == movie.tmdbId()) {
+                return found;
+            }
+        }
+        int position = found;
+        while (position > 0 && RANKING.compare(movie, top[position - 1]) < 0) {
+            position--;
+        }
+        if (position >= top.length) {
+            return found;
+        }
+        int moved = Math.min(found, top.length - 1) - position;
+        System.arraycopy(top, position, top, position + 1, moved);
+        top[position] = movie;
+        return Math.min(found + 1, top.length);
+    }
+
+    private Movie findMovie(int tmdbId) {
+        Movie movie = deltaMovies.get(tmdbId);
+        if (movie != null) {
+            return movie;
+        }
+        Snapshot current = snapshot;
+        int ref = current.refOf(tmdbId);
+        return ref < 0 ? null : current.movie(ref);
+    }
+
+    private static List<String> keysOf(Movie movie) {
+        List<String> keys = new ArrayList<>();
+        addWordKeys(keys, movie.title());
+        if (movie.originalTitle() != null && !movie.originalTitle().equals(movie.title())) {
+            addWordKeys(keys, movie.originalTitle());
+        }
+        return keys;
+    }
+
+    private static void addWordKeys(List<String> keys, String title) {
+        String normalized = normalize(title);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            String suffix = normalized.substring(i + 1);
+            if (!keys.contains(suffix)) {
+                keys.add(suffix);
+            }
+        }
+    }
+
+    /**
+     * Lower case, accents stripped, punctuation collapsed to single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        // Most titles are plain ASCII and skip the Unicode decomposition
+        StringBuilder ascii = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return normalizeUnicode(text);
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z')) {
+                if (pendingSpace && !ascii.isEmpty()) {
+                    ascii.append(' ');
+                }
+                pendingSpace = false;
+                ascii.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return ascii.toString();
+    }
+
+    private static String normalizeUnicode(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    public Stats getStats() {
+        Snapshot current = snapshot;
+        long count = lookups.sum();
+        return new Stats(current.tmdbIds.length, current.keys.length, deltaMovies.size(), deltaKeys.size(),
+            current.estimatedBytes, count, count == 0 ? 0 : lookupNanos.sum() / count);
+    }
+
+    /**
+     * Index size and lookup cost. {@code estimatedBytes} approximates the heap held by
+     * the snapshot arrays and strings (compact Latin-1 strings assumed).
+     */
+    public record Stats(int movies, int keys, int deltaMovies, int deltaKeys, long estimatedBytes,
+                        long lookups, long averageLookupNanos) {
+    }
+
+    private record Movie(int tmdbId, String title, String originalTitle, double popularity, boolean inWatchlist) {
+        boolean sameText(Movie other) {
+            return other != null && title.equals(other.title())
+                && Objects.equals(originalTitle, other.originalTitle());
+        }
+    }
+
+    private record KeyRef(String key, int ref) {
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = of(List.of(), List.of(), 0, null);
+
+        final String[] keys;
+        final int[] refs;
+        // Per-movie columns, sorted by tmdbId so updates can find an existing entry
+        final int[] tmdbIds;
+        final String[] titles;
+        final String[] originalTitles;
+        final double[] popularity;
+        final boolean[] inWatchlist;
+        final long estimatedBytes;
+        // Lowest-ranked movie indexed when the key budget ran out, null if everything fit
+        final Movie floor;
+        // Best-ranked refs, best first, for every key prefix of up to SHORT_PREFIX_LENGTH characters
+        final Map<String, int[]> shortPrefixTop;
+
+        private Snapshot(String[] keys, int[] refs, int[] tmdbIds, String[] titles, String[] originalTitles,
+                         double[] popularity, boolean[] inWatchlist, long estimatedBytes, Movie floor,
+                         Map<String, int[]> shortPrefixTop) {
+            this.keys = keys;
+            this.refs = refs;
+            this.tmdbIds = tmdbIds;
+            this.titles = titles;
+            this.originalTitles = originalTitles;
+            this.popularity = popularity;
+            this.inWatchlist = inWatchlist;
+            this.estimatedBytes = estimatedBytes;
+            this.floor = floor;
+            this.shortPrefixTop = shortPrefixTop;
+        }
+
+        static Snapshot of(List<Movie> movies, List<String[]> movieKeys, int keyCount, Movie floor) {
+            Integer[] order = new Integer[movies.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingInt(i -> movies.get(i).tmdbId()));
+            int[] refByRank = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                refByRank[order[i]] = i;
+            }
+
+            int[] tmdbIds = new int[order.length];
+            String[] titles = new String[order.length];
+            String[] originalTitles = new String[order.length];
+            double[] popularity = new double[order.length];
+            boolean[] inWatchlist = new boolean[order.length];
+            KeyRef[] entries = new KeyRef[keyCount];
+            int entry = 0;
+            long bytes = 0;
+            for (int i = 0; i < order.length; i++) {
+                Movie movie = movies.get(order[i]);
+                tmdbIds[i] = movie.tmdbId();
+                titles[i] = movie.title();
+                originalTitles[i] = movie.originalTitle();
+                popularity[i] = movie.popularity();
+                inWatchlist[i] = movie.inWatchlist();
+                bytes += 4 + 8 + 1 + 8 + stringBytes(movie.title()) + stringBytes(movie.originalTitle());
+                for (String key : movieKeys.get(order[i])) {
+                    entries[entry++] = new KeyRef(key, i);
+                }
+            }
+
+            Arrays.parallelSort(entries, Comparator.comparing(KeyRef::key));
+            String[] keys = new String[keyCount];
+            int[] refs = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = entries[i].key();
+                refs[i] = entries[i].ref();
+                bytes += 4 + 4 + stringBytes(keys[i]);
+            }
+
+            // Movies arrive best first, so each bucket fills with the top of its prefix
+            Map<String, List<Integer>> buckets = new HashMap<>();
+            for (int rank = 0; rank < movies.size(); rank++) {
+                int ref = refByRank[rank];
+                for (String key : movieKeys.get(rank)) {
+                    for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, key.length()); length++) {
+                        List<Integer> bucket = buckets.computeIfAbsent(key.substring(0, length), k -> new ArrayList<>());
+                        // Several keys of one movie can share a prefix; they come in a row
+                        if (bucket.size() < SHORT_PREFIX_TOP && (bucket.isEmpty() || bucket.get(bucket.size() - 1) != ref)) {
+                            bucket.add(ref);
+                        }
+                    }
+                }
+            }
+            Map<String, int[]> shortPrefixTop = new HashMap<>(buckets.size() * 4 / 3 + 1);
+            for (Map.Entry<String, List<Integer>> bucket : buckets.entrySet()) {
+                int[] top = bucket.getValue().stream().mapToInt(Integer::intValue).toArray();
+                shortPrefixTop.put(bucket.getKey(), top);
+                bytes += 48 + stringBytes(bucket.getKey()) + 16 + 4L * top.length;
+            }
+            return new Snapshot(keys, refs, tmdbIds, titles, originalTitles, popularity, inWatchlist, bytes, floor,
+                shortPrefixTop);
+        }
+
+        private static long stringBytes(String value) {
+            // String header + byte[] header and contents, rounded to 8-byte alignment
+            return value == null ? 0 : 24 + ((16 + value.length() + 7) & ~7);
+        }
+
+        int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int refOf(int tmdbId) {
+            int ref = Arrays.binarySearch(tmdbIds, tmdbId);
+            return ref < 0 ? -1 : ref;
+        }
+
+        boolean ranksBefore(int ref, Movie other) {
+            if (inWatchlist[ref] != other.inWatchlist()) {
+                return inWatchlist[ref];
+            }
+            return popularity[ref] > other.popularity();
+        }
+
+        Movie movie(int ref) {
+            return new Movie(tmdbIds[ref], titles[ref], originalTitles[ref], popularity[ref], inWatchlist[ref]);
+        }
+    }
+}
@@ -10,11 +10,15 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.Screen;
+import javafx.stage.Window;
+import org.example.watchlater.model.ImageConfiguration;
 import org.example.watchlater.model.TMDBMovie;
 import java.util.logging.Logger;
 
 public class MovieCard extends VBox {
     private static final Logger logger = Logger.getLogger(MovieCard.class.getName());
+    private static final double POSTER_WIDTH = 180;
 
     public static class MovieCardEvent extends javafx.event.Event {
         public static final javafx.event.EventType<MovieCardEvent> MOVIE_SELECTED = 
@@ -50,7 +54,7 @@ public class MovieCard extends VBox {
     private boolean inWatchlist;
     private boolean watched;
 
-    public MovieCard(TMDBMovie movie, String imageBaseUrl) {
+    public MovieCard(TMDBMovie movie, ImageConfiguration imageConfiguration) {
         this.movie = movie;
         this.posterView = new ImageView();
         this.titleLabel = new Label();
@@ -63,7 +67,7 @@ public class MovieCard extends VBox {
 
         setupLayout();
         setupEventHandlers();
-        loadMovieData(imageBaseUrl);
+        loadMovieData(imageConfiguration);
     }
 
     private void setupLayout() {
@@ -74,7 +78,7 @@ public class MovieCard extends VBox {
         setMaxWidth(200);
         setMinWidth(200);
 
-        posterView.setFitWidth(180);
+        posterView.setFitWidth(POSTER_WIDTH);
         posterView.setFitHeight(270);
         posterView.setPreserveRatio(true);
         StackPane posterContainer = new StackPane(posterView);
@@ -125,13 +129,13 @@ public class MovieCard extends VBox {
         });
     }
 
-    private void loadMovieData(String imageBaseUrl) {
+    private void loadMovieData(ImageConfiguration imageConfiguration) {
         titleLabel.setText(movie.getTitle());
-        yearLabel.setText(String.valueOf(movie.getReleaseDate().getYear()));
+        yearLabel.setText(movie.getReleaseDate() != null ? String.valueOf(movie.getReleaseDate().getYear()) : "");
         ratingLabel.setText(movie.getFormattedVoteAverage());
 
         if (movie.getPosterPath() != null) {
-            String posterUrl = movie.getFullPosterUrl(imageBaseUrl, "500");
+            String posterUrl = imageConfiguration.posterUrl(movie, POSTER_WIDTH, outputScale(this));
             Image posterImage = new Image(posterUrl, true);
             posterView.setImage(posterImage);
         }
@@ -141,6 +145,16 @@ public class MovieCard extends VBox {
         return movie;
     }
 
+    /**
+     * Physical pixels per layout pixel for {@code node}: its window's scale once shown,
+     * the primary screen's before that.
+     */
+    static double outputScale(javafx.scene.Node node) {
+        Window window = node.getScene() != null ? node.getScene().getWindow() : null;
+        double scale = window != null ? window.getOutputScaleX() : Screen.getPrimary().getOutputScaleX();
+        return scale > 0 ? scale : 1.0;
+    }
+
     public void setInWatchlist(boolean inWatchlist) {
         if (this.inWatchlist != inWatchlist) {
             this.inWatchlist = inWatchlist;
@@ -22,13 +22,16 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 import javafx.util.Duration;
+import org.example.watchlater.model.ImageConfiguration;
 import org.example.watchlater.model.TMDBMovie;
 import org.example.watchlater.model.User;
 import org.example.watchlater.model.WatchlistEntry;
+import org.example.watchlater.model.WatchlistStatus;
 import org.example.watchlater.service.AsyncWatchlistService;
 import org.example.watchlater.service.TMDBService;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -37,7 +40,6 @@ public class MovieDetailsView extends BorderPane {
     private final User user;
     private final AsyncWatchlistService watchlistService;
     private final TMDBService tmdbService;
-    private final String imageBaseUrl;
     private TMDBMovie currentMovie;
     private WatchlistEntry currentEntry;
 
@@ -57,12 +59,12 @@ public class MovieDetailsView extends BorderPane {
     private final ProgressIndicator loadingIndicator;
 
     private static final Duration FADE_DURATION = Duration.millis(300);
+    private static final double DEFAULT_BACKDROP_WIDTH = 1200;
 
     public MovieDetailsView(User user, AsyncWatchlistService watchlistService, TMDBService tmdbService) {
         this.user = user;
         this.watchlistService = watchlistService;
         this.tmdbService = tmdbService;
-        this.imageBaseUrl = tmdbService.getImageBaseUrl();
 
         this.backButton = new Button("← Back");
         this.backdropView = new ImageView();
@@ -262,7 +264,7 @@ public class MovieDetailsView extends BorderPane {
             if (currentEntry == null) {
                 loadingIndicator.setProgress(-1);
                 loadingIndicator.setVisible(true);
-                watchlistService.addToWatchlist(user.getId(), currentMovie.getTmdbId())
+                watchlistService.addToWatchlist(user.getId(), currentMovie)
                     .thenAccept(entry -> Platform.runLater(() -> {
                         currentEntry = entry;
                         updateWatchlistState(true);
@@ -380,14 +382,17 @@ public class MovieDetailsView extends BorderPane {
     }
 
     private void loadImages(TMDBMovie movie) {
+        ImageConfiguration imageConfiguration = tmdbService.getImageConfiguration();
+        double scale = MovieCard.outputScale(this);
         if (movie.getPosterPath() != null) {
-            String posterUrl = movie.getFullPosterUrl(imageBaseUrl, "500");
+            String posterUrl = imageConfiguration.posterUrl(movie, posterView.getFitWidth(), scale);
             Image posterImage = new Image(posterUrl, true);
             posterView.setImage(posterImage);
         }
 
         if (movie.getBackdropPath() != null) {
-            String backdropUrl = movie.getFullBackdropUrl(imageBaseUrl, null);
+            double backdropWidth = getWidth() > 0 ? getWidth() : DEFAULT_BACKDROP_WIDTH;
+            String backdropUrl = imageConfiguration.backdropUrl(movie, backdropWidth, scale);
             Image backdropImage = new Image(backdropUrl, true);
             backdropImage.progressProperty().addListener((obs, oldVal, newVal) -> {
                 if (newVal.doubleValue() == 1.0) {
@@ -416,52 +421,51 @@ public class MovieDetailsView extends BorderPane {
     }
 
     private void checkWatchlistStatus(TMDBMovie movie) {
-        watchlistService.isInWatchlist(user.getId(), movie.getTmdbId())
-            .thenAccept(inWatchlist -> {
-                if (inWatchlist) {
-                    watchlistService.isWatched(user.getId(), movie.getTmdbId())
-                        .thenAccept(isWatched -> {
-                            currentEntry = new WatchlistEntry(
-                                0L, user.getId(), movie.getTmdbId(),
-                                null, isWatched, null
-                            );
-                            
-                            if (currentMovie.getRuntime() == null || currentMovie.getBudget() == null) {
-                                tmdbService.getMovieDetails(currentMovie.getTmdbId())
-                                    .thenAccept(fullMovieOpt -> {
-                                        Platform.runLater(() -> {
-                                            try {
-                                                fullMovieOpt.ifPresent(fullMovie -> {
-                                                    currentMovie = fullMovie;
-                                                    updateFullMovieDetails();
-                                                });
-                                                updateWatchlistState(true);
-                                            } catch (Exception e) {
-                                                showError("Error updating UI with full movie details: " + e.getMessage());
-                                            }
-                                        });
-                                    })
-                                    .exceptionally(ex -> {
-                                        Platform.runLater(() -> {
-                                            showError("Failed to load full movie details: " + ex.getMessage());
-                                            updateWatchlistState(true);
-                                        });
-                                        return null;
-                                    });
-                            } else {
+        watchlistService.getWatchlistStatuses(user.getId(), List.of(movie.getTmdbId()))
+            .thenAccept(statuses -> {
+                WatchlistStatus status = statuses.getOrDefault(movie.getTmdbId(), WatchlistStatus.ABSENT);
+                if (status.isInWatchlist()) {
+                    boolean isWatched = status.isWatched();
+                    currentEntry = new WatchlistEntry(
+                        0L, user.getId(), movie.getTmdbId(),
+                        null, isWatched, null
+                    );
+                    
+                    if (currentMovie.getCredits() == null) {
+                        tmdbService.getFullMovieDetails(currentMovie.getTmdbId())
+                            .thenAccept(fullMovieOpt -> {
                                 Platform.runLater(() -> {
                                     try {
-                                        updateFullMovieDetails();
+                                        fullMovieOpt.ifPresent(fullMovie -> {
+                                            currentMovie = fullMovie;
+                                            updateFullMovieDetails();
+                                        });
                                         updateWatchlistState(true);
                                     } catch (Exception e) {
-                                        showError("Error updating UI with cached movie details: " + e.getMessage());
+                                        showError("Error updating UI with full movie details: " + e.getMessage());
                                     }
                                 });
+                            })
+                            .exceptionally(ex -> {
+                                Platform.runLater(() -> {
+                                    showError("Failed to load full movie details: " + ex.getMessage());
+                                    updateWatchlistState(true);
+                                });
+                                return null;
+                            });
+                    } else {
+                        Platform.runLater(() -> {
+                            try {
+                                updateFullMovieDetails();
+                                updateWatchlistState(true);
+                            } catch (Exception e) {
+                                showError("Error updating UI with cached movie details: " + e.getMessage());
                             }
                         });
+                    }
                 } else {
-                    if (currentMovie.getRuntime() == null || currentMovie.getBudget() == null) {
-                        tmdbService.getMovieDetails(currentMovie.getTmdbId())
+                    if (currentMovie.getCredits() == null) {
+                        tmdbService.getFullMovieDetails(currentMovie.getTmdbId())
                             .thenAccept(fullMovieOpt -> {
                                 Platform.runLater(() -> {
                                     try {
@@ -510,6 +514,8 @@ public class MovieDetailsView extends BorderPane {
 
         Platform.runLater(() -> {
             try {
+                taglineLabel.setText(currentMovie.getTagline() != null ? currentMovie.getTagline() : "");
+                
                 Label originalTitleLabel = (Label)getMetadataValue(0);
                 if (originalTitleLabel != null) {
                     originalTitleLabel.setText(currentMovie.getOriginalTitle() != null ? 
@@ -1,21 +1,39 @@
 package org.example.watchlater.ui;
 
+import javafx.animation.PauseTransition;
+import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
+import org.example.watchlater.config.AppProperties;
+import org.example.watchlater.model.MoviePage;
 import org.example.watchlater.model.TMDBMovie;
+import org.example.watchlater.model.TitleSuggestion;
+import org.example.watchlater.model.WatchlistStatus;
 import org.example.watchlater.service.TMDBService;
 import org.example.watchlater.service.AsyncWatchlistService;
 import org.example.watchlater.model.User;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import javafx.application.Platform;
 import javafx.scene.layout.Priority;
 
 public class MovieSearchView extends VBox {
+    // Start loading the next page once the user has scrolled this far down
+    private static final double LOAD_MORE_THRESHOLD = 0.85;
+    private static final int LOCAL_RESULT_LIMIT = 20;
+    private static final int MAX_SUGGESTIONS = 8;
+
     private final TMDBService tmdbService;
     private final AsyncWatchlistService watchlistService;
     private final User user;
@@ -23,7 +41,25 @@ public class MovieSearchView extends VBox {
     private final ProgressIndicator loadingIndicator;
     private final Label statusLabel;
     private final TextField searchField;
+    private final ScrollPane scrollPane;
+    private final PauseTransition searchDebounce;
+    private final ContextMenu suggestionsMenu;
+    private boolean applyingSuggestion;
     private Consumer<TMDBMovie> onMovieSelected;
+
+    // Paging state of the listing on screen; currentQuery is null for popular movies.
+    // Every new listing bumps listingSequence, and responses tagged with an older
+    // sequence number are dropped.
+    private String currentQuery;
+    private long listingSequence;
+    private MoviePage lastPage;
+    private boolean loadingMore;
+    private CompletableFuture<MoviePage> pendingPage;
+    private CompletableFuture<MoviePage> prefetchedPage;
+    private CompletableFuture<List<TMDBMovie>> pendingLocal;
+    // Movies already shown in this listing; local and TMDB results overlap
+    private final Set<Integer> shownMovieIds = new HashSet<>();
+    private boolean listingShown;
     
     public MovieSearchView(TMDBService tmdbService, User user, AsyncWatchlistService watchlistService) {
         this.tmdbService = tmdbService;
@@ -33,9 +69,14 @@ public class MovieSearchView extends VBox {
         this.loadingIndicator = new ProgressIndicator();
         this.statusLabel = new Label("Loading popular movies...");
         this.searchField = new TextField();
+        this.scrollPane = new ScrollPane(moviesPane);
+        this.searchDebounce = new PauseTransition(Duration.millis(
+            AppProperties.getInstance().getLong("app.search-debounce-ms", 300)));
+        this.suggestionsMenu = new ContextMenu();
         
         setupLayout();
         setupEventHandlers();
+        tmdbService.addPopularMoviesListener(page -> Platform.runLater(() -> updatePopularMovies(page)));
         loadPopularMovies();
     }
     
@@ -60,7 +101,6 @@ public class MovieSearchView extends VBox {
         moviesPane.setPadding(new Insets(10));
         moviesPane.setAlignment(Pos.CENTER);
 
-        ScrollPane scrollPane = new ScrollPane(moviesPane);
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
         scrollPane.setBackground(Background.EMPTY);
@@ -81,51 +121,126 @@ public class MovieSearchView extends VBox {
     
     private void setupEventHandlers() {
         searchField.setOnAction(e -> {
+            searchDebounce.stop();
+            suggestionsMenu.hide();
             String query = searchField.getText().trim();
             if (!query.isEmpty()) {
+                // Always search on Enter, so a failed search can be retried
                 search(query);
             } else {
                 loadPopularMovies();
             }
         });
 
+        // Search as you type, once typing has paused for the debounce window
+        searchDebounce.setOnFinished(e -> {
+            String query = searchField.getText().trim();
+            if (!query.isEmpty() && !query.equals(currentQuery)) {
+                search(query);
+            }
+        });
+
         searchField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (applyingSuggestion) {
+                return;
+            }
             if (newVal == null || newVal.trim().isEmpty()) {
+                searchDebounce.stop();
+                suggestionsMenu.hide();
                 loadPopularMovies();
+            } else {
+                showSuggestions(newVal);
+                searchDebounce.playFromStart();
+            }
+        });
+
+        searchField.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                suggestionsMenu.hide();
             }
         });
+
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal.doubleValue() >= LOAD_MORE_THRESHOLD) {
+                loadNextPage();
+            }
+        });
+        // A taller window can leave room below the last card with nothing to scroll
+        scrollPane.viewportBoundsProperty().addListener((obs, oldBounds, newBounds) -> loadMoreIfNotScrollable());
+    }
+    
+    // Suggestions come from the in-memory title index, cheap enough to run per keystroke
+    private void showSuggestions(String text) {
+        List<TitleSuggestion> suggestions = tmdbService.suggestTitles(text, MAX_SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            suggestionsMenu.hide();
+            return;
+        }
+
+        suggestionsMenu.getItems().clear();
+        for (TitleSuggestion suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion.title());
+            item.setOnAction(e -> applySuggestion(suggestion.title()));
+            suggestionsMenu.getItems().add(item);
+        }
+        if (!suggestionsMenu.isShowing()) {
+            suggestionsMenu.show(searchField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void applySuggestion(String title) {
+        applyingSuggestion = true;
+        try {
+            searchField.setText(title);
+            searchField.positionCaret(title.length());
+        } finally {
+            applyingSuggestion = false;
+        }
+        suggestionsMenu.hide();
+        searchDebounce.stop();
+        if (!title.equals(currentQuery)) {
+            search(title);
+        }
     }
     
     private void search(String query) {
+        long sequence = startListing(query);
         loadingIndicator.setVisible(true);
         statusLabel.setText("Searching...");
         
-        tmdbService.searchMovies(query)
-            .thenAccept(movies -> {
+        // Saved movies come back long before TMDB does; show them first and merge the
+        // remote results in when they arrive
+        pendingLocal = tmdbService.searchLocalMovies(query, LOCAL_RESULT_LIMIT);
+        pendingLocal.thenAccept(movies -> Platform.runLater(() -> {
+            if (!isCurrentListing(sequence) || movies.isEmpty()) {
+                return;
+            }
+            showMovies(movies);
+            if (lastPage == null) {
+                statusLabel.setText(String.format("Showing %d saved movies for '%s', searching TMDB...", shownMovieIds.size(), query));
+            }
+        }));
+        
+        pendingPage = tmdbService.searchMovies(query, 1);
+        pendingPage
+            .thenAccept(page -> {
                 Platform.runLater(() -> {
-                    moviesPane.getChildren().clear();
-                    if (movies.isEmpty()) {
-                        statusLabel.setText("No movies found. Try a different search term.");
+                    if (!isCurrentListing(sequence)) {
+                        return;
+                    }
+                    if (page.getResults().isEmpty() && shownMovieIds.isEmpty()) {
+                        moviesPane.getChildren().clear();
+                        statusLabel.setText(page.isOffline()
+                            ? "TMDB is unreachable and no saved movies match. Try again later."
+                            : "No movies found. Try a different search term.");
                     } else {
-                        statusLabel.setText(String.format("Found %d movies for '%s'", movies.size(), query));
-                        for (TMDBMovie movie : movies) {
-                            MovieCard card = new MovieCard(movie, tmdbService.getImageBaseUrl());
-
-                            watchlistService.isInWatchlist(user.getId(), movie.getTmdbId())
-                                .thenAccept(inWatchlist -> {
-                                    if (inWatchlist) {
-                                        watchlistService.isWatched(user.getId(), movie.getTmdbId())
-                                            .thenAccept(isWatched -> {
-                                                Platform.runLater(() -> {
-                                                    card.setInWatchlist(true);
-                                                    card.setWatched(isWatched);
-                                                });
-                                            });
-                                    }
-                                });
-
-                            setupMovieCardEventHandlers(card, movie);
-                            moviesPane.getChildren().add(card);
+                        showPage(page);
+                        if (page.isOffline()) {
+                            statusLabel.setText(String.format("TMDB is unreachable - showing %d saved movies for '%s'", shownMovieIds.size(), query));
+                        } else if (page.getResults().isEmpty()) {
+                            statusLabel.setText(String.format("Showing %d saved movies for '%s'", shownMovieIds.size(), query));
+                        } else {
+                            statusLabel.setText(String.format("Found %d movies for '%s'", page.getTotalResults(), query));
                         }
                     }
                     loadingIndicator.setVisible(false);
@@ -133,6 +248,9 @@ public class MovieSearchView extends VBox {
             })
             .exceptionally(ex -> {
                 Platform.runLater(() -> {
+                    if (!isCurrentListing(sequence)) {
+                        return;
+                    }
                     statusLabel.setText("Error searching movies. Please try again.");
                     loadingIndicator.setVisible(false);
                     showError("Error searching movies: " + ex.getMessage());
@@ -140,10 +258,146 @@ public class MovieSearchView extends VBox {
                 return null;
             });
     }
+
+    private long startListing(String query) {
+        // Abandon whatever the previous listing still has in flight
+        if (pendingPage != null) {
+            pendingPage.cancel(true);
+            pendingPage = null;
+        }
+        if (prefetchedPage != null) {
+            prefetchedPage.cancel(true);
+            prefetchedPage = null;
+        }
+        if (pendingLocal != null) {
+            pendingLocal.cancel(true);
+            pendingLocal = null;
+        }
+
+        currentQuery = query;
+        lastPage = null;
+        loadingMore = false;
+        shownMovieIds.clear();
+        listingShown = false;
+        scrollPane.setVvalue(0);
+        return ++listingSequence;
+    }
+
+    private boolean isCurrentListing(long sequence) {
+        return sequence == listingSequence;
+    }
+
+    private CompletableFuture<MoviePage> fetchPage(String query, int page) {
+        return query == null ? tmdbService.getPopularMovies(page) : tmdbService.searchMovies(query, page);
+    }
+
+    private void showPage(MoviePage page) {
+        showMovies(page.getResults());
+        lastPage = page;
+        loadingMore = false;
+
+        // Fetch page N+1 in the background while page N is being looked at
+        if (page.hasNextPage()) {
+            prefetchedPage = fetchPage(currentQuery, page.getPage() + 1);
+        }
+        // Once the new cards are laid out
+        Platform.runLater(this::loadMoreIfNotScrollable);
+    }
+
+    /**
+     * Loads the next page when the cards do not fill the viewport, as then there is no
+     * scroll bar to reach the threshold with.
+     */
+    private void loadMoreIfNotScrollable() {
+        Bounds viewport = scrollPane.getViewportBounds();
+        if (lastPage == null || !lastPage.hasNextPage() || viewport.getHeight() <= 0) {
+            return;
+        }
+        if (moviesPane.prefHeight(viewport.getWidth()) <= viewport.getHeight()) {
+            loadNextPage();
+        }
+    }
+
+    private void showMovies(List<TMDBMovie> movies) {
+        // The previous listing stays on screen until this one has something to show
+        if (!listingShown) {
+            moviesPane.getChildren().clear();
+            listingShown = true;
+        }
+        List<MovieCard> cards = new ArrayList<>();
+        for (TMDBMovie movie : movies) {
+            if (shownMovieIds.add(movie.getTmdbId())) {
+                MovieCard card = createMovieCard(movie);
+                moviesPane.getChildren().add(card);
+                cards.add(card);
+            }
+        }
+        applyWatchlistStatuses(cards);
+    }
+
+    /**
+     * Looks up the watchlist status of all {@code cards} with one query and updates them.
+     */
+    private CompletableFuture<Void> applyWatchlistStatuses(List<MovieCard> cards) {
+        if (cards.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<Integer> tmdbIds = cards.stream().map(card -> card.getMovie().getTmdbId()).toList();
+        return watchlistService.getWatchlistStatuses(user.getId(), tmdbIds)
+            .thenAccept(statuses -> Platform.runLater(() -> {
+                for (MovieCard card : cards) {
+                    WatchlistStatus status = statuses.getOrDefault(card.getMovie().getTmdbId(), WatchlistStatus.ABSENT);
+                    card.setInWatchlist(status.isInWatchlist());
+                    card.setWatched(status.isWatched());
+                }
+            }))
+            .exceptionally(ex -> {
+                System.err.println("Failed to check watchlist statuses: " + ex.getMessage());
+                return null;
+            });
+    }
+
+    private void loadNextPage() {
+        if (loadingMore || lastPage == null || !lastPage.hasNextPage()) {
+            return;
+        }
+
+        loadingMore = true;
+        long sequence = listingSequence;
+        int nextPage = lastPage.getPage() + 1;
+        pendingPage = prefetchedPage != null ? prefetchedPage : fetchPage(currentQuery, nextPage);
+        prefetchedPage = null;
+        loadingIndicator.setVisible(!pendingPage.isDone());
+
+        pendingPage
+            .thenAccept(page -> Platform.runLater(() -> {
+                if (!isCurrentListing(sequence) || lastPage == null || lastPage.getPage() + 1 != nextPage) {
+                    return;
+                }
+                showPage(page);
+                loadingIndicator.setVisible(false);
+            }))
+            .exceptionally(ex -> {
+                Platform.runLater(() -> {
+                    if (isCurrentListing(sequence)) {
+                        loadingMore = false;
+                        loadingIndicator.setVisible(false);
+                        statusLabel.setText("Failed to load more movies. Scroll down to try again.");
+                    }
+                });
+                return null;
+            });
+    }
+
+    private MovieCard createMovieCard(TMDBMovie movie) {
+        MovieCard card = new MovieCard(movie, tmdbService.getImageConfiguration());
+        setupMovieCardEventHandlers(card, movie);
+        return card;
+    }
     
     private void setupMovieCardEventHandlers(MovieCard card, TMDBMovie movie) {
         card.addEventHandler(MovieCard.MovieCardEvent.ADD_TO_WATCHLIST, e -> {
-            watchlistService.addToWatchlist(user.getId(), movie.getTmdbId())
+            watchlistService.addToWatchlist(user.getId(), movie)
                 .thenAccept(entry -> Platform.runLater(() -> {
                     card.setInWatchlist(true);
                     statusLabel.setText("Movie added to watchlist");
@@ -215,112 +469,32 @@ public class MovieSearchView extends VBox {
     }
     
     private void loadPopularMovies() {
+        long sequence = startListing(null);
         loadingIndicator.setVisible(true);
         statusLabel.setText("Loading popular movies...");
         
-        tmdbService.getPopularMovies()
-            .thenAccept(movies -> {
+        pendingPage = tmdbService.getPopularMovies(1);
+        pendingPage
+            .thenAccept(page -> {
                 Platform.runLater(() -> {
-                    moviesPane.getChildren().clear();
-                    if (movies.isEmpty()) {
+                    if (!isCurrentListing(sequence)) {
+                        return;
+                    }
+                    if (page.getResults().isEmpty()) {
+                        moviesPane.getChildren().clear();
                         statusLabel.setText("No popular movies found. Please try again later.");
                     } else {
-                        statusLabel.setText("Popular Movies");
-                        for (TMDBMovie movie : movies) {
-                            MovieCard card = new MovieCard(movie, tmdbService.getImageBaseUrl());
-
-                            watchlistService.isInWatchlist(user.getId(), movie.getTmdbId())
-                                .thenAccept(inWatchlist -> {
-                                    if (inWatchlist) {
-                                        watchlistService.isWatched(user.getId(), movie.getTmdbId())
-                                            .thenAccept(isWatched -> {
-                                                Platform.runLater(() -> {
-                                                    card.setInWatchlist(true);
-                                                    card.setWatched(isWatched);
-                                                });
-                                            });
-                                    }
-                                });
-
-                            card.addEventHandler(MovieCard.MovieCardEvent.ADD_TO_WATCHLIST, e -> {
-                                watchlistService.addToWatchlist(user.getId(), movie.getTmdbId())
-                                    .thenAccept(entry -> Platform.runLater(() -> {
-                                        card.setInWatchlist(true);
-                                        card.setWatched(false);
-                                        statusLabel.setText("Movie added to watchlist");
-                                    }))
-                                    .exceptionally(ex -> {
-                                        Platform.runLater(() -> {
-                                            statusLabel.setText("Failed to add movie to watchlist");
-                                            showError("Failed to add movie to watchlist: " + ex.getMessage());
-                                        });
-                                        return null;
-                                    });
-                            });
-                            
-                            card.addEventHandler(MovieCard.MovieCardEvent.REMOVE_FROM_WATCHLIST, e -> {
-                                watchlistService.removeFromWatchlist(user.getId(), movie.getTmdbId())
-                                    .thenRun(() -> Platform.runLater(() -> {
-                                        card.setInWatchlist(false);
-                                        card.setWatched(false);
-                                        statusLabel.setText("Movie removed from watchlist");
-                                    }))
-                                    .exceptionally(ex -> {
-                                        Platform.runLater(() -> {
-                                            statusLabel.setText("Failed to remove movie from watchlist");
-                                            showError("Failed to remove movie from watchlist: " + ex.getMessage());
-                                        });
-                                        return null;
-                                    });
-                            });
-                            
-                            card.addEventHandler(MovieCard.MovieCardEvent.MARK_AS_WATCHED, e -> {
-                                watchlistService.markAsWatched(user.getId(), movie.getTmdbId())
-                                    .thenAccept(success -> Platform.runLater(() -> {
-                                        if (success) {
-                                            card.setWatched(true);
-                                            statusLabel.setText("Movie marked as watched");
-                                        }
-                                    }))
-                                    .exceptionally(ex -> {
-                                        Platform.runLater(() -> {
-                                            statusLabel.setText("Failed to mark movie as watched");
-                                            showError("Failed to mark movie as watched: " + ex.getMessage());
-                                        });
-                                        return null;
-                                    });
-                            });
-                            
-                            card.addEventHandler(MovieCard.MovieCardEvent.MARK_AS_UNWATCHED, e -> {
-                                watchlistService.markAsUnwatched(user.getId(), movie.getTmdbId())
-                                    .thenAccept(success -> Platform.runLater(() -> {
-                                        if (success) {
-                                            card.setWatched(false);
-                                            statusLabel.setText("Movie marked as unwatched");
-                                        }
-                                    }))
-                                    .exceptionally(ex -> {
-                                        Platform.runLater(() -> {
-                                            statusLabel.setText("Failed to mark movie as unwatched");
-                                            showError("Failed to mark movie as unwatched: " + ex.getMessage());
-                                        });
-                                        return null;
-                                    });
-                            });
-                            
-                            card.setOnMouseClicked(e -> {
-                                if (e.getClickCount() == 2 && onMovieSelected != null) {
-                                    onMovieSelected.accept(movie);
-                                }
-                            });
-                            moviesPane.getChildren().add(card);
-                        }
+                        statusLabel.setText(page.isOffline() ? "Popular Movies (offline - from saved movies)" : "Popular Movies");
+                        showPage(page);
                     }
                     loadingIndicator.setVisible(false);
                 });
             })
             .exceptionally(ex -> {
                 Platform.runLater(() -> {
+                    if (!isCurrentListing(sequence)) {
+                        return;
+                    }
                     statusLabel.setText("Error loading popular movies. Please try again later.");
                     loadingIndicator.setVisible(false);
                     showError("Error loading popular movies: " + ex.getMessage());
@@ -329,6 +503,23 @@ public class MovieSearchView extends VBox {
             });
     }
     
+    /**
+     * Swaps in a re-ranked popular list from the background refresh, but only while the
+     * popular list is on screen and the user has not scrolled past its first page.
+     */
+    private void updatePopularMovies(MoviePage page) {
+        if (currentQuery != null || lastPage == null || lastPage.getPage() != 1 || loadingMore) {
+            return;
+        }
+        if (prefetchedPage != null) {
+            prefetchedPage.cancel(true);
+            prefetchedPage = null;
+        }
+        shownMovieIds.clear();
+        listingShown = false;
+        showPage(page);
+    }
+    
     private void showError(String message) {
         Platform.runLater(() -> {
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -344,53 +535,18 @@ public class MovieSearchView extends VBox {
     }
 
     public void refreshWatchlistStatuses() {
-        if (moviesPane.getChildren().isEmpty()) {
+        List<MovieCard> cards = new ArrayList<>();
+        for (javafx.scene.Node node : moviesPane.getChildren()) {
+            if (node instanceof MovieCard card) {
+                cards.add(card);
+            }
+        }
+        if (cards.isEmpty()) {
             return;
         }
 
         statusLabel.setText("Refreshing watchlist statuses...");
-
-        for (javafx.scene.Node node : moviesPane.getChildren()) {
-            if (node instanceof MovieCard) {
-                MovieCard card = (MovieCard) node;
-                TMDBMovie movie = card.getMovie();
-
-                watchlistService.isInWatchlist(user.getId(), movie.getTmdbId())
-                    .thenAccept(inWatchlist -> {
-                        Platform.runLater(() -> {
-                            try {
-                                card.setInWatchlist(inWatchlist);
-                                if (!inWatchlist) {
-                                    card.setWatched(false);
-                                }
-                            } catch (Exception e) {
-                                System.err.println("Error updating MovieCard inWatchlist status: " + e.getMessage());
-                            }
-                        });
-
-                        if (inWatchlist) {
-                            watchlistService.isWatched(user.getId(), movie.getTmdbId())
-                                .thenAccept(isWatched -> {
-                                    Platform.runLater(() -> {
-                                        try {
-                                            card.setWatched(isWatched);
-                                        } catch (Exception e) {
-                                            System.err.println("Error updating MovieCard isWatched status: " + e.getMessage());
-                                        }
-                                    });
-                                })
-                                .exceptionally(ex -> {
-                                    System.err.println("Failed to check watched status for movie " + movie.getTmdbId() + ": " + ex.getMessage());
-                                    return null;
-                                });
-                        }
-                    })
-                    .exceptionally(ex -> {
-                        System.err.println("Failed to check watchlist status for movie " + movie.getTmdbId() + ": " + ex.getMessage());
-                        return null;
-                    });
-            }
-        }
-        statusLabel.setText("");
+        applyWatchlistStatuses(cards)
+            .whenComplete((ignored, ex) -> Platform.runLater(() -> statusLabel.setText("")));
     }
 } 
\ No newline at end of file
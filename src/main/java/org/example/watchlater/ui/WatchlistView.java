@@ -13,27 +13,17 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import org.example.watchlater.model.TMDBMovie;
 import org.example.watchlater.model.User;
-import org.example.watchlater.model.WatchlistEntry;
+import org.example.watchlater.model.WatchlistItem;
 import org.example.watchlater.service.AsyncWatchlistService;
 import org.example.watchlater.service.TMDBService;
-import org.example.watchlater.repository.MovieRepository;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
-import java.util.ArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class WatchlistView extends BorderPane {
     private final User user;
     private final AsyncWatchlistService watchlistService;
     private final TMDBService tmdbService;
-    private final MovieRepository movieRepository;
-    private final String imageBaseUrl;
-    private final ExecutorService executorService;
 
     private final ObservableList<TMDBMovie> unwatchedMovies = FXCollections.observableArrayList();
     private final ObservableList<TMDBMovie> watchedMovies = FXCollections.observableArrayList();
@@ -51,13 +41,10 @@ public class WatchlistView extends BorderPane {
 
     private static final Logger logger = Logger.getLogger(WatchlistView.class.getName());
 
-    public WatchlistView(User user, AsyncWatchlistService watchlistService, TMDBService tmdbService, MovieRepository movieRepository) {
+    public WatchlistView(User user, AsyncWatchlistService watchlistService, TMDBService tmdbService) {
         this.user = user;
         this.watchlistService = watchlistService;
         this.tmdbService = tmdbService;
-        this.movieRepository = movieRepository;
-        this.imageBaseUrl = tmdbService.getImageBaseUrl();
-        this.executorService = Executors.newFixedThreadPool(4);
 
         // Initialize components
         this.statsButton = new Button("Statistics");
@@ -153,88 +140,36 @@ public class WatchlistView extends BorderPane {
         unwatchedMovies.clear();
         watchedMovies.clear();
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                List<WatchlistEntry> entries = watchlistService.getWatchlist(user.getId()).get();
-                
-                if (entries.isEmpty()) {
-                    Platform.runLater(() -> {
-                        loadingIndicator.setVisible(false);
-                        statusLabel.setText("Your watchlist is empty");
-                    });
-                    return;
-                }
+        // Entries and their movies come back from one joined query
+        watchlistService.getWatchlistItems(user.getId())
+            .thenAccept(items -> Platform.runLater(() -> {
+                unwatchedMoviesPane.getChildren().clear();
+                watchedMoviesPane.getChildren().clear();
 
-                List<CompletableFuture<Optional<TMDBMovie>>> movieFutures = new ArrayList<>();
-                for (WatchlistEntry entry : entries) {
-                    CompletableFuture<Optional<TMDBMovie>> movieFuture = CompletableFuture.supplyAsync(() -> {
-                        try {
-                            Optional<TMDBMovie> movieOpt = movieRepository.findById(entry.getMovieId());
-                            if (movieOpt.isPresent()) {
-                                return tmdbService.getMovieDetails(movieOpt.get().getTmdbId()).get();
-                            } else {
-                                watchlistService.removeFromWatchlist(user.getId(), entry.getMovieId())
-                                    .exceptionally(ex -> {
-                                        logger.warning("Failed to remove non-existent movie from watchlist: " + entry.getMovieId());
-                                        return null;
-                                    });
-                                return Optional.empty();
-                            }
-                        } catch (Exception ex) {
-                            logger.warning("Error processing movie: " + entry.getMovieId());
-                            return Optional.empty();
-                        }
-                    }, executorService);
-                    movieFutures.add(movieFuture);
-                }
+                for (WatchlistItem item : items) {
+                    TMDBMovie movie = item.movie();
+                    MovieCard card = new MovieCard(movie, tmdbService.getImageConfiguration());
+                    card.setInWatchlist(true);
+                    card.setWatched(item.isWatched());
 
-                CompletableFuture.allOf(movieFutures.toArray(new CompletableFuture[0]))
-                    .thenRun(() -> {
-                        List<TMDBMovie> loadedMovies = movieFutures.stream()
-                            .map(CompletableFuture::join)
-                            .filter(Optional::isPresent)
-                            .map(Optional::get)
-                            .toList();
-
-                        Platform.runLater(() -> {
-                            unwatchedMoviesPane.getChildren().clear();
-                            watchedMoviesPane.getChildren().clear();
-
-                            for (TMDBMovie movie : loadedMovies) {
-                                MovieCard card = new MovieCard(movie, imageBaseUrl);
-
-                                watchlistService.isWatched(user.getId(), movie.getTmdbId())
-                                    .thenAccept(isWatched -> Platform.runLater(() -> {
-                                        card.setInWatchlist(true);
-                                        card.setWatched(isWatched);
-
-                                        if (isWatched) {
-                                            watchedMoviesPane.getChildren().add(card);
-                                        } else {
-                                            unwatchedMoviesPane.getChildren().add(card);
-                                        }
-                                    }));
-
-                                setupMovieCardEventHandlers(card, movie);
-                            }
-                            loadingIndicator.setVisible(false);
-                            statusLabel.setText("Watchlist loaded");
-                        });
-                    })
-                    .exceptionally(ex -> {
-                        Platform.runLater(() -> {
-                            loadingIndicator.setVisible(false);
-                            showError("Failed to load watchlist: " + ex.getMessage());
-                        });
-                        return null;
-                    });
-            } catch (Exception ex) {
+                    if (item.isWatched()) {
+                        watchedMoviesPane.getChildren().add(card);
+                    } else {
+                        unwatchedMoviesPane.getChildren().add(card);
+                    }
+
+                    setupMovieCardEventHandlers(card, movie);
+                }
+                loadingIndicator.setVisible(false);
+                statusLabel.setText(items.isEmpty() ? "Your watchlist is empty" : "Watchlist loaded");
+            }))
+            .exceptionally(ex -> {
                 Platform.runLater(() -> {
                     loadingIndicator.setVisible(false);
                     showError("Failed to load watchlist: " + ex.getMessage());
                 });
-            }
-        }, executorService);
+                return null;
+            });
     }
 
     private void setupMovieCardEventHandlers(MovieCard card, TMDBMovie movie) {
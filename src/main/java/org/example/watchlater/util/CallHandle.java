@@ -0,0 +1,31 @@
+package org.example.watchlater.util;
+
+import okhttp3.Call;
+
+/**
+ * Lets the owner of a TMDB request abort it while it is running. Cancelling closes the
+ * OkHttp call currently in flight and stops any further retries of it.
+ */
+public class CallHandle {
+    private volatile Call call;
+    private volatile boolean cancelled;
+
+    void attach(Call call) {
+        this.call = call;
+        if (cancelled) {
+            call.cancel();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        Call current = call;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.watchlater.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stops calls to an upstream that keeps failing. After {@code failureThreshold}
+ * consecutive failures the breaker opens and rejects every request. A background probe
+ * then checks the upstream (HALF_OPEN) after {@code openMillis}, doubling the wait up to
+ * {@code maxOpenMillis} while it keeps failing, and closes the breaker once it succeeds.
+ * Ordinary requests are never let through until the probe has passed.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long maxOpenMillis;
+    private final BooleanSupplier probe;
+    private final ScheduledExecutorService scheduler;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long currentOpenMillis;
+    private final LongAdder trips = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis, long maxOpenMillis,
+                          BooleanSupplier probe) {
+        if (failureThreshold < 1 || openMillis < 1) {
+            throw new IllegalArgumentException("Failure threshold and open time must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.maxOpenMillis = Math.max(openMillis, maxOpenMillis);
+        this.probe = probe;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-circuit-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether a request may be sent now. Counts the request as rejected if not.
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    public synchronized void recordSuccess() {
+        if (state == State.CLOSED) {
+            consecutiveFailures = 0;
+        }
+    }
+
+    public synchronized void recordFailure() {
+        if (state != State.CLOSED) {
+            return;
+        }
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold) {
+            trips.increment();
+            currentOpenMillis = openMillis;
+            state = State.OPEN;
+            logger.log(Level.WARNING, "{0} circuit opened after {1} consecutive failures, probing in {2} ms",
+                new Object[]{name, consecutiveFailures, currentOpenMillis});
+            scheduleProbe();
+        }
+    }
+
+    private void scheduleProbe() {
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::runProbe, currentOpenMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runProbe() {
+        synchronized (this) {
+            state = State.HALF_OPEN;
+        }
+        boolean healthy;
+        try {
+            healthy = probe.getAsBoolean();
+        } catch (RuntimeException e) {
+            healthy = false;
+        }
+        synchronized (this) {
+            if (healthy) {
+                state = State.CLOSED;
+                consecutiveFailures = 0;
+                logger.log(Level.INFO, "{0} circuit closed, upstream is reachable again", name);
+            } else {
+                state = State.OPEN;
+                currentOpenMillis = Math.min(maxOpenMillis, currentOpenMillis * 2);
+                logger.log(Level.WARNING, "{0} probe failed, next probe in {1} ms",
+                    new Object[]{name, currentOpenMillis});
+                scheduleProbe();
+            }
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(state, consecutiveFailures, trips.sum(), rejected.sum());
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * {@code trips} counts how often the breaker opened; {@code rejected} the requests
+     * refused while it was not closed.
+     */
+    public record Stats(State state, int consecutiveFailures, long trips, long rejected) {
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.watchlater.util;
+
+import org.example.watchlater.config.AppProperties;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor for blocking I/O (OkHttp and JDBC calls), kept off the common ForkJoinPool so
+ * slow requests cannot starve other users of it. Runs every task on its own virtual
+ * thread by default; {@code tmdb.executor.type=fixed} switches to a platform thread pool
+ * of {@code tmdb.executor.threads} threads.
+ */
+public class IoExecutor implements Executor {
+    private final ExecutorService delegate;
+    private final String description;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+
+    public IoExecutor(ExecutorService delegate, String description) {
+        this.delegate = delegate;
+        this.description = description;
+    }
+
+    public static IoExecutor fromProperties(AppProperties properties) {
+        String type = properties.getString("tmdb.executor.type", "virtual");
+        if ("fixed".equalsIgnoreCase(type)) {
+            int threads = Math.max(1, properties.getInt("tmdb.executor.threads", 8));
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, "tmdb-io-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return new IoExecutor(Executors.newFixedThreadPool(threads, factory), "fixed(" + threads + ")");
+        }
+        ThreadFactory factory = Thread.ofVirtual().name("tmdb-io-", 1).factory();
+        return new IoExecutor(Executors.newThreadPerTaskExecutor(factory), "virtual");
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(description, queued.get(), active.get(), completed.sum());
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * Waits for running and queued tasks after {@link #shutdown()}; false on timeout.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * {@code queued} tasks were submitted but have not started yet; {@code active} are running.
+     */
+    public record Stats(String type, int queued, int active, long completed) {
+    }
+}
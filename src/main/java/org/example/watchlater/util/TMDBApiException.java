@@ -0,0 +1,28 @@
+package org.example.watchlater.util;
+
+/**
+ * Thrown when TMDB could not be reached or kept failing after all retries, so callers
+ * can tell an outage apart from a request that simply returned no results.
+ */
+public class TMDBApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public TMDBApiException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public TMDBApiException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = -1;
+    }
+
+    /**
+     * HTTP status of the last attempt, or -1 if it failed before a response arrived.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
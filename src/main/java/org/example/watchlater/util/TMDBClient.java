@@ -1,104 +1,423 @@
 package org.example.watchlater.util;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import okhttp3.OkHttpClient;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
 import okhttp3.Request;
 import okhttp3.Response;
+import org.example.watchlater.config.AppProperties;
 import org.example.watchlater.config.TMDBConfig;
+import org.example.watchlater.model.ImageConfiguration;
+import org.example.watchlater.model.MoviePage;
 import org.example.watchlater.model.TMDBMovie;
 
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class TMDBClient {
     private static final Logger logger = Logger.getLogger(TMDBClient.class.getName());
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+    private static final String FULL_DETAILS_APPEND = "credits,videos,similar";
     private final TMDBConfig config;
-    private final OkHttpClient httpClient;
+    private final TMDBTransport transport;
     private final ObjectMapper objectMapper;
+    private final String language;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheRevalidations = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final RateLimiter rateLimiter;
+    private final int maxRetries;
+    private final long retryDelayMs;
+    private final LongAdder retries = new LongAdder();
+    private final CircuitBreaker circuitBreaker;
     
-    public TMDBClient() {
+    public TMDBClient(TMDBTransport transport) {
+        AppProperties properties = AppProperties.getInstance();
         this.config = TMDBConfig.getInstance();
-        this.httpClient = new OkHttpClient();
+        this.transport = transport;
+        this.language = properties.getString("app.default-language", "en-US");
+        this.rateLimiter = new RateLimiter(
+            properties.getInt("tmdb.api.rate-limit-per-second", 20),
+            properties.getInt("tmdb.api.rate-limit-burst", 20));
+        this.maxRetries = Math.max(0, properties.getInt("tmdb.api.max-retries", 3));
+        this.retryDelayMs = Math.max(1, properties.getLong("tmdb.api.retry-delay-ms", 1000));
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        this.circuitBreaker = new CircuitBreaker("TMDB",
+            properties.getInt("tmdb.circuit.failure-threshold", 5),
+            properties.getLong("tmdb.circuit.open-seconds", 30) * 1000,
+            properties.getLong("tmdb.circuit.max-open-seconds", 300) * 1000,
+            this::probe);
     }
     
     public String getImageBaseUrl() {
         return config.getImageBaseUrl();
     }
     
+    public String getLanguage() {
+        return language;
+    }
+    
+    /**
+     * Whether requests are currently being sent. False while the circuit breaker is open
+     * because TMDB kept failing; callers should answer from local data instead.
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.isClosed();
+    }
+    
+    public CircuitBreaker.Stats getCircuitStats() {
+        return circuitBreaker.getStats();
+    }
+    
+    /**
+     * Health check used by the circuit breaker before it lets traffic through again.
+     * Bypasses the HTTP cache so a stored response cannot mask an outage.
+     */
+    private boolean probe() {
+        String url = String.format("%s/configuration?api_key=%s", config.getBaseUrl(), config.getApiKey());
+        Request request = new Request.Builder().url(url).cacheControl(CacheControl.FORCE_NETWORK).build();
+        try (Response response = transport.execute(transport.newCall(request))) {
+            return response.code() < 500;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Sends a request through the rate limiter, retrying 429, 5xx and I/O failures with
+     * jittered exponential backoff (or the server's Retry-After). Any other response is
+     * returned to the caller; running out of retries throws {@link TMDBApiException}.
+     * A request cancelled through its {@link CallHandle} throws {@link CancellationException}.
+     * Every attempt reports to the circuit breaker, and an open breaker fails the request
+     * immediately with a {@link TMDBApiException}.
+     */
+    private Response execute(Request request, CallHandle handle) {
+        for (int attempt = 0; ; attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                throw new TMDBApiException("TMDB is unavailable, circuit breaker is open", -1);
+            }
+            Response response;
+            try {
+                rateLimiter.acquire();
+                throwIfCancelled(handle);
+                Call call = transport.newCall(request);
+                if (handle != null) {
+                    handle.attach(call);
+                }
+                response = transport.execute(call);
+            } catch (IOException e) {
+                throwIfCancelled(handle);
+                circuitBreaker.recordFailure();
+                if (attempt >= maxRetries) {
+                    throw new TMDBApiException("TMDB request failed after " + (attempt + 1) + " attempts", e);
+                }
+                logger.log(Level.WARNING, "TMDB request failed ({0}), retrying", e.getMessage());
+                sleepBeforeRetry(backoffDelay(attempt));
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TMDBApiException("Interrupted while waiting for TMDB rate limit", e);
+            }
+            
+            recordCacheOutcome(response);
+            int code = response.code();
+            if (code < 500) {
+                circuitBreaker.recordSuccess();
+            } else {
+                circuitBreaker.recordFailure();
+            }
+            if (code != 429 && code < 500) {
+                return response;
+            }
+            
+            long delay = retryAfterDelay(response).orElse(backoffDelay(attempt));
+            response.close();
+            if (attempt >= maxRetries) {
+                throw new TMDBApiException("TMDB returned HTTP " + code + " after " + (attempt + 1) + " attempts", code);
+            }
+            logger.log(Level.WARNING, "TMDB returned HTTP {0}, retrying in {1} ms", new Object[]{code, delay});
+            sleepBeforeRetry(delay);
+            throwIfCancelled(handle);
+        }
+    }
+    
+    private static void throwIfCancelled(CallHandle handle) {
+        if (handle != null && handle.isCancelled()) {
+            throw new CancellationException("TMDB request cancelled");
+        }
+    }
+    
+    private long backoffDelay(int attempt) {
+        long ceiling = Math.min(MAX_RETRY_DELAY_MS, retryDelayMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+    
+    private Optional<Long> retryAfterDelay(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return Optional.empty();
+        }
+        try {
+            long seconds = Long.parseLong(retryAfter.trim());
+            return Optional.of(Math.min(MAX_RETRY_DELAY_MS, Math.max(0, seconds * 1000)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                long millis = Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis();
+                return Optional.of(Math.min(MAX_RETRY_DELAY_MS, Math.max(0, millis)));
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+    
+    private void sleepBeforeRetry(long delayMs) {
+        retries.increment();
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TMDBApiException("Interrupted while waiting to retry TMDB request", e);
+        }
+    }
+    
+    public RetryStats getRetryStats() {
+        return new RetryStats(retries.sum(), rateLimiter.getThrottledCount(), rateLimiter.getThrottledMillis());
+    }
+    
+    private void recordCacheOutcome(Response response) {
+        if (response.cacheResponse() == null) {
+            cacheMisses.increment();
+        } else if (response.networkResponse() == null) {
+            cacheHits.increment();
+        } else {
+            cacheRevalidations.increment();
+        }
+    }
+    
+    /**
+     * Outcomes of the transport's disk cache. OkHttp stores the ETag / Last-Modified
+     * validators with each body and revalidates stale entries with If-None-Match /
+     * If-Modified-Since, so an unchanged resource costs a 304 instead of the full payload.
+     */
+    public CacheStats getCacheStats() {
+        Cache responseCache = transport.getCache();
+        long size;
+        try {
+            size = responseCache.size();
+        } catch (IOException e) {
+            size = -1;
+        }
+        return new CacheStats(cacheHits.sum(), cacheRevalidations.sum(), cacheMisses.sum(),
+            size, responseCache.maxSize());
+    }
+    
+    public void close() {
+        circuitBreaker.shutdown();
+    }
+    
     public List<TMDBMovie> searchMovies(String query) {
-        String url = String.format("%s/search/movie?api_key=%s&query=%s",
-                config.getBaseUrl(), config.getApiKey(), query);
-
-        List<TMDBMovie> movies = fetchMovieList(url);
-
-        return movies;
+        return searchMovies(query, 1).getResults();
+    }
+    
+    public MoviePage searchMovies(String query, int page) {
+        return searchMovies(query, page, null);
+    }
+    
+    public MoviePage searchMovies(String query, int page, CallHandle handle) {
+        String url = String.format("%s/search/movie?api_key=%s&language=%s&query=%s&page=%d",
+                config.getBaseUrl(), config.getApiKey(), language,
+                URLEncoder.encode(query, StandardCharsets.UTF_8), page);
+        return fetchMoviePage(url, handle);
     }
     
     public Optional<TMDBMovie> getMovieDetails(int tmdbId) {
-        String url = String.format("%s/movie/%d?api_key=%s",
-                config.getBaseUrl(), tmdbId, config.getApiKey());
+        String url = String.format("%s/movie/%d?api_key=%s&language=%s",
+                config.getBaseUrl(), tmdbId, config.getApiKey(), language);
+        return fetchMovie(url);
+    }
+    
+    /**
+     * Details plus credits, videos and similar titles, fetched in one request through
+     * TMDB's append_to_response instead of one round trip per sub-resource.
+     */
+    public Optional<TMDBMovie> getFullMovieDetails(int tmdbId) {
+        String url = String.format("%s/movie/%d?api_key=%s&language=%s&append_to_response=%s",
+                config.getBaseUrl(), tmdbId, config.getApiKey(), language, FULL_DETAILS_APPEND);
+        return fetchMovie(url);
+    }
+    
+    private Optional<TMDBMovie> fetchMovie(String url) {
         try {
             Request request = new Request.Builder().url(url).build();
-            try (Response response = httpClient.newCall(request).execute()) {
+            try (Response response = execute(request, null)) {
                 if (!response.isSuccessful()) {
                     logger.log(Level.SEVERE, "Failed to fetch movie details: {0}", response.code());
                     return Optional.empty();
                 }
                 
-                String responseBody = response.body().string();
-                TMDBMovie movie = objectMapper.readValue(responseBody, TMDBMovie.class);
+                TMDBMovie movie = objectMapper.readValue(response.body().byteStream(), TMDBMovie.class);
                 return Optional.of(movie);
             }
+        } catch (JsonProcessingException e) {
+            logger.log(Level.SEVERE, "Error parsing movie details", e);
+            return Optional.empty();
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error fetching movie details", e);
+            // The connection dropped or timed out while reading the body
+            circuitBreaker.recordFailure();
+            throw new TMDBApiException("Error reading movie details from TMDB", e);
+        }
+    }
+    
+    /**
+     * Image base URL and available poster/backdrop sizes from /configuration. TMDB
+     * changes these rarely, so callers are expected to keep the result for days.
+     */
+    public Optional<ImageConfiguration> getImageConfiguration() {
+        String url = String.format("%s/configuration?api_key=%s", config.getBaseUrl(), config.getApiKey());
+        try {
+            Request request = new Request.Builder().url(url).build();
+            try (Response response = execute(request, null)) {
+                if (!response.isSuccessful()) {
+                    logger.log(Level.WARNING, "Failed to fetch TMDB configuration: {0}", response.code());
+                    return Optional.empty();
+                }
+                
+                JsonNode images = objectMapper.readTree(response.body().byteStream()).path("images");
+                ImageConfiguration configuration = objectMapper.treeToValue(images, ImageConfiguration.class);
+                return configuration != null && configuration.isComplete() ? Optional.of(configuration) : Optional.empty();
+            }
+        } catch (JsonProcessingException e) {
+            logger.log(Level.SEVERE, "Error parsing TMDB configuration", e);
             return Optional.empty();
+        } catch (IOException e) {
+            circuitBreaker.recordFailure();
+            throw new TMDBApiException("Error reading configuration from TMDB", e);
         }
     }
     
     public List<TMDBMovie> getPopularMovies() {
-        String url = String.format("%s/movie/popular?api_key=%s",
-                config.getBaseUrl(), config.getApiKey());
-        List<TMDBMovie> movies = fetchMovieList(url);
-        return movies;
+        return getPopularMovies(1).getResults();
+    }
+    
+    public MoviePage getPopularMovies(int page) {
+        String url = String.format("%s/movie/popular?api_key=%s&language=%s&page=%d",
+                config.getBaseUrl(), config.getApiKey(), language, page);
+        return fetchMoviePage(url);
     }
     
     public List<TMDBMovie> fetchMovieList(String url) {
+        return fetchMoviePage(url).getResults();
+    }
+    
+    public MoviePage fetchMoviePage(String url) {
+        return fetchMoviePage(url, null);
+    }
+    
+    public MoviePage fetchMoviePage(String url, CallHandle handle) {
         List<TMDBMovie> movies = new ArrayList<>();
+        MoviePage page = streamMovieList(url, movies::add, handle);
+        page.setResults(movies);
+        return page;
+    }
+    
+    /**
+     * Decodes a TMDB list response straight from the body stream, handing each entry of
+     * {@code results} to the consumer as soon as its object has been read. Nothing but
+     * the current movie is buffered, unlike reading the body into a String and a tree.
+     * The returned page carries the paging cursor (page, total_pages, total_results);
+     * its results are left empty. An error status, a malformed body or losing the
+     * connection mid-body throws {@link TMDBApiException} rather than passing off an
+     * empty or partial list as a real answer.
+     */
+    public MoviePage streamMovieList(String url, Consumer<TMDBMovie> consumer) {
+        return streamMovieList(url, consumer, null);
+    }
+    
+    public MoviePage streamMovieList(String url, Consumer<TMDBMovie> consumer, CallHandle handle) {
+        MoviePage cursor = MoviePage.empty(1);
         try {
             Request request = new Request.Builder().url(url).build();
-            try (Response response = httpClient.newCall(request).execute()) {
+            try (Response response = execute(request, handle)) {
                 if (!response.isSuccessful()) {
-                    logger.log(Level.SEVERE, "Failed to fetch movies: HTTP {0} from {1}",
-                        new Object[]{response.code(), url});
-                    return movies;
+                    throw new TMDBApiException("TMDB returned HTTP " + response.code() + " for a movie list",
+                        response.code());
                 }
                 
-                String responseBody = response.body().string();
-                
-                JsonNode root = objectMapper.readTree(responseBody);
-                JsonNode results = root.get("results");
-                
-                if (results.isArray()) {
-                    for (JsonNode movieNode : results) {
-                        
-                        TMDBMovie movie = objectMapper.treeToValue(movieNode, TMDBMovie.class);
-                        movies.add(movie);
+                try (JsonParser parser = objectMapper.createParser(response.body().byteStream())) {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        throw new TMDBApiException("Unexpected movie list response, expected a JSON object",
+                            response.code());
+                    }
+                    
+                    boolean foundResults = false;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        JsonToken value = parser.nextToken();
+                        if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                            foundResults = true;
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                consumer.accept(objectMapper.readValue(parser, TMDBMovie.class));
+                            }
+                        } else if ("page".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                            cursor.setPage(parser.getIntValue());
+                        } else if ("total_pages".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                            cursor.setTotalPages(parser.getIntValue());
+                        } else if ("total_results".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                            cursor.setTotalResults(parser.getIntValue());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    
+                    if (!foundResults) {
+                        throw new TMDBApiException("No 'results' array found in movie list response",
+                            response.code());
                     }
-                } else {
-                    logger.log(Level.WARNING, "No 'results' array found in API response");
                 }
             }
+        } catch (JsonProcessingException e) {
+            throw new TMDBApiException("Error parsing movies from TMDB", e);
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error fetching movies from URL: " + url, e);
+            throwIfCancelled(handle);
+            circuitBreaker.recordFailure();
+            throw new TMDBApiException("Error reading movies from TMDB", e);
         }
-        return movies;
+        return cursor;
+    }
+    
+    /**
+     * Response cache breakdown: {@code hits} were served from disk without touching the
+     * network, {@code revalidated} were confirmed with a conditional request, and
+     * {@code misses} downloaded the full body.
+     */
+    public record CacheStats(long hits, long revalidated, long misses, long sizeBytes, long maxSizeBytes) {
+    }
+    
+    /**
+     * Retries performed, and how often / how long requests waited on the rate limiter.
+     */
+    public record RetryStats(long retries, long throttled, long throttledMillis) {
     }
 } 
\ No newline at end of file
@@ -0,0 +1,272 @@
+package org.example.watchlater.util;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.CacheControl;
+import okhttp3.Callback;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.example.watchlater.config.AppProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The one OkHttpClient used to talk to TMDB. Connection pool, dispatcher limits,
+ * timeouts, HTTP/2 and the response cache are read from application.properties
+ * ({@code tmdb.http.*}).
+ * <p>
+ * Calls go through {@link Dispatcher} via enqueue even though callers block on the
+ * result, so {@code max-requests} / {@code max-requests-per-host} actually apply and
+ * waiting calls show up as queued. An event listener times how long each call sat in
+ * the dispatcher queue and how long new connections took to set up.
+ */
+public class TMDBTransport {
+    private static final Logger logger = Logger.getLogger(TMDBTransport.class.getName());
+
+    private final OkHttpClient httpClient;
+    private final ConnectionPool connectionPool;
+    private final Dispatcher dispatcher;
+    private final Cache cache;
+
+    private final LongAdder dispatchedCalls = new LongAdder();
+    private final LongAdder dispatchWaitNanos = new LongAdder();
+    private final AtomicLong maxDispatchWaitNanos = new AtomicLong();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectNanos = new LongAdder();
+
+    public TMDBTransport() {
+        this(AppProperties.getInstance());
+    }
+
+    public TMDBTransport(AppProperties properties) {
+        this.connectionPool = new ConnectionPool(
+            properties.getInt("tmdb.http.max-idle-connections", 5),
+            properties.getLong("tmdb.http.keep-alive-seconds", 300), TimeUnit.SECONDS);
+
+        this.dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(properties.getInt("tmdb.http.max-requests", 64));
+        dispatcher.setMaxRequestsPerHost(properties.getInt("tmdb.http.max-requests-per-host", 5));
+
+        File cacheDirectory = properties.getDataDirectory().resolve("http-cache").toFile();
+        this.cache = new Cache(cacheDirectory, properties.getLong("tmdb.http.cache-size-mb", 50) * 1024 * 1024);
+
+        List<Protocol> protocols = properties.getBoolean("tmdb.http.http2", true)
+            ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+            : List.of(Protocol.HTTP_1_1);
+
+        this.httpClient = new OkHttpClient.Builder()
+            .connectionPool(connectionPool)
+            .dispatcher(dispatcher)
+            .cache(cache)
+            .protocols(protocols)
+            .connectTimeout(properties.getLong("tmdb.http.connect-timeout-ms", 10_000), TimeUnit.MILLISECONDS)
+            .readTimeout(properties.getLong("tmdb.http.read-timeout-ms", 10_000), TimeUnit.MILLISECONDS)
+            .callTimeout(properties.getLong("tmdb.http.call-timeout-ms", 0), TimeUnit.MILLISECONDS)
+            .eventListenerFactory(call -> new TimingListener())
+            .build();
+    }
+
+    public Call newCall(Request request) {
+        return httpClient.newCall(request);
+    }
+
+    /**
+     * Runs the call through the dispatcher and waits for its response. Interrupting the
+     * waiting thread cancels the call.
+     */
+    public Response execute(Call call) throws IOException {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!result.complete(response)) {
+                    response.close();
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            call.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + call.request().url().host());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Opens a connection (DNS, TCP, TLS and HTTP/2 negotiation) to the host of
+     * {@code url} in the background, so the first real request finds it in the pool.
+     */
+    public void preconnect(String url) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        if (parsed == null) {
+            logger.log(Level.WARNING, "Cannot pre-connect to invalid URL {0}", url);
+            return;
+        }
+        Request request = new Request.Builder()
+            .url(parsed.newBuilder().encodedPath("/").query(null).build())
+            .head()
+            .cacheControl(CacheControl.FORCE_NETWORK)
+            .build();
+        long start = System.nanoTime();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                logger.log(Level.INFO, "Pre-connected to {0} over {1} in {2} ms", new Object[]{
+                    parsed.host(), response.protocol(), (System.nanoTime() - start) / 1_000_000});
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                logger.log(Level.WARNING, "Pre-connect to {0} failed: {1}", new Object[]{parsed.host(), e.getMessage()});
+            }
+        });
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Stats getStats() {
+        Map<String, Integer> runningPerHost = new TreeMap<>();
+        for (Call call : dispatcher.runningCalls()) {
+            runningPerHost.merge(call.request().url().host(), 1, Integer::sum);
+        }
+        Map<String, Integer> queuedPerHost = new TreeMap<>();
+        for (Call call : dispatcher.queuedCalls()) {
+            queuedPerHost.merge(call.request().url().host(), 1, Integer::sum);
+        }
+
+        int connections = connectionPool.connectionCount();
+        int idle = connectionPool.idleConnectionCount();
+        long dispatched = dispatchedCalls.sum();
+        long opened = connectionsOpened.sum();
+        return new Stats(
+            connections, idle, connections - idle,
+            dispatcher.runningCallsCount(), dispatcher.queuedCallsCount(),
+            runningPerHost, queuedPerHost,
+            dispatcher.getMaxRequests(), dispatcher.getMaxRequestsPerHost(),
+            dispatched == 0 ? 0 : dispatchWaitNanos.sum() / dispatched / 1_000,
+            maxDispatchWaitNanos.get() / 1_000,
+            opened, opened == 0 ? 0 : connectNanos.sum() / opened / 1_000_000);
+    }
+
+    public void close() {
+        dispatcher.executorService().shutdown();
+        connectionPool.evictAll();
+        try {
+            cache.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing HTTP response cache", e);
+        }
+    }
+
+    /**
+     * Live transport counters. Per-host maps count calls currently running or waiting
+     * in the dispatcher; dispatch wait is the time between enqueue and the call starting
+     * to execute, the signal that the request limits are too tight.
+     */
+    public record Stats(int connections, int idleConnections, int activeConnections,
+                        int runningCalls, int queuedCalls,
+                        Map<String, Integer> runningPerHost, Map<String, Integer> queuedPerHost,
+                        int maxRequests, int maxRequestsPerHost,
+                        long averageDispatchWaitMicros, long maxDispatchWaitMicros,
+                        long connectionsOpened, long averageConnectMillis) {
+    }
+
+    /**
+     * callStart fires on enqueue; the first cache, proxy or connection event fires once
+     * the dispatcher has actually started the call.
+     */
+    private class TimingListener extends EventListener {
+        private long enqueuedAt;
+        private boolean dispatched;
+        private long connectStartedAt;
+
+        @Override
+        public void callStart(Call call) {
+            enqueuedAt = System.nanoTime();
+        }
+
+        private void markDispatched() {
+            if (dispatched || enqueuedAt == 0) {
+                return;
+            }
+            dispatched = true;
+            long wait = System.nanoTime() - enqueuedAt;
+            dispatchedCalls.increment();
+            dispatchWaitNanos.add(wait);
+            maxDispatchWaitNanos.accumulateAndGet(wait, Math::max);
+        }
+
+        @Override
+        public void cacheHit(Call call, Response response) {
+            markDispatched();
+        }
+
+        @Override
+        public void cacheMiss(Call call) {
+            markDispatched();
+        }
+
+        @Override
+        public void cacheConditionalHit(Call call, Response cachedResponse) {
+            markDispatched();
+        }
+
+        @Override
+        public void proxySelectStart(Call call, HttpUrl url) {
+            markDispatched();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            markDispatched();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connectStartedAt = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy,
+                               Protocol protocol) {
+            connectionsOpened.increment();
+            connectNanos.add(System.nanoTime() - connectStartedAt);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+-- Schema as created by DatabaseConfig.initializeDatabase before migrations existed.
+-- Every statement is idempotent so databases created that way adopt it as version 1.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGSERIAL PRIMARY KEY,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    display_name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    last_login TIMESTAMP WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS movie_cache (
+    id BIGSERIAL PRIMARY KEY,
+    tmdb_id INTEGER UNIQUE NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    overview TEXT,
+    poster_path VARCHAR(255),
+    backdrop_path VARCHAR(255),
+    release_date DATE,
+    vote_average DOUBLE PRECISION,
+    vote_count INTEGER,
+    genres INTEGER[],
+    original_language VARCHAR(10),
+    original_title VARCHAR(255),
+    popularity DOUBLE PRECISION,
+    adult BOOLEAN,
+    video BOOLEAN,
+    cache_timestamp TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Hash of the cached TMDB fields; unchanged rows are not rewritten on upsert
+ALTER TABLE movie_cache ADD COLUMN IF NOT EXISTS content_hash BIGINT;
+
+-- Full-text search over titles and overview. The 'simple' configuration keeps titles
+-- unstemmed, which suits prefix matching while typing.
+ALTER TABLE movie_cache ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(original_title, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(overview, '')), 'C')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_movie_cache_search ON movie_cache USING GIN (search_vector);
+
+-- pg_trgm may need rights the application user lacks; search then falls back to ILIKE
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN OTHERS THEN
+    RAISE WARNING 'pg_trgm is not available, typo-tolerant local search is disabled: %', SQLERRM;
+END
+$$;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_movie_cache_title_trgm ON movie_cache USING GIN (title gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_movie_cache_original_title_trgm ON movie_cache USING GIN (original_title gin_trgm_ops);
+    END IF;
+END
+$$;
+
+CREATE TABLE IF NOT EXISTS popular_snapshot (
+    position INTEGER PRIMARY KEY,
+    tmdb_id INTEGER NOT NULL REFERENCES movie_cache(tmdb_id) ON DELETE CASCADE,
+    total_pages INTEGER NOT NULL,
+    refreshed_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS watchlist (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT REFERENCES users(id),
+    movie_id BIGINT REFERENCES movie_cache(id),
+    watched BOOLEAN DEFAULT FALSE,
+    priority INTEGER DEFAULT 0,
+    notes TEXT,
+    added_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    watched_at TIMESTAMP WITH TIME ZONE,
+    UNIQUE(user_id, movie_id)
+);
+
+INSERT INTO users (id, email, display_name)
+VALUES (1, 'default@watchlater.com', 'Default User')
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,10 @@
+-- getWatchlist: WHERE user_id = ? ORDER BY added_at DESC, read straight off the index.
+-- Lookups by (user_id, movie_id) are already served by the UNIQUE constraint.
+CREATE INDEX IF NOT EXISTS idx_watchlist_user_added ON watchlist (user_id, added_at DESC);
+
+-- The "to watch" list is the one that grows; watched rows stay out of this index
+CREATE INDEX IF NOT EXISTS idx_watchlist_user_unwatched ON watchlist (user_id, added_at DESC)
+    WHERE watched = false;
+
+-- Genre filters: genres @> ARRAY[?] / genres && ?
+CREATE INDEX IF NOT EXISTS idx_movie_cache_genres ON movie_cache USING GIN (genres);
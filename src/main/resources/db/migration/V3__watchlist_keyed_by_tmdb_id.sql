@@ -0,0 +1,18 @@
+-- Watchlist rows reference movies by tmdb_id, the id every caller already has, so no
+-- operation needs a movie_cache lookup first. Existing rows are converted in place.
+ALTER TABLE watchlist ADD COLUMN IF NOT EXISTS tmdb_id INTEGER;
+
+UPDATE watchlist w SET tmdb_id = m.tmdb_id
+FROM movie_cache m
+WHERE m.id = w.movie_id AND w.tmdb_id IS NULL;
+
+-- Rows whose movie is gone could never be shown
+DELETE FROM watchlist WHERE tmdb_id IS NULL;
+
+ALTER TABLE watchlist ALTER COLUMN tmdb_id SET NOT NULL;
+ALTER TABLE watchlist ADD CONSTRAINT watchlist_tmdb_id_fkey
+    FOREIGN KEY (tmdb_id) REFERENCES movie_cache(tmdb_id);
+ALTER TABLE watchlist ADD CONSTRAINT watchlist_user_id_tmdb_id_key UNIQUE (user_id, tmdb_id);
+
+-- Takes the old UNIQUE (user_id, movie_id) and its foreign key with it
+ALTER TABLE watchlist DROP COLUMN movie_id;
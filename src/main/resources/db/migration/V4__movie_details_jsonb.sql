@@ -0,0 +1,14 @@
+-- Fields only the TMDB details endpoint returns (runtime, budget, credits, videos,
+-- similar titles, ...) are kept as one JSONB document. The scalar fields that screens
+-- show are exposed as generated columns so they can be selected without parsing it.
+ALTER TABLE movie_cache ADD COLUMN IF NOT EXISTS details JSONB;
+ALTER TABLE movie_cache ADD COLUMN IF NOT EXISTS details_updated_at TIMESTAMP WITH TIME ZONE;
+
+ALTER TABLE movie_cache
+    ADD COLUMN IF NOT EXISTS runtime INTEGER GENERATED ALWAYS AS ((details->>'runtime')::integer) STORED,
+    ADD COLUMN IF NOT EXISTS budget BIGINT GENERATED ALWAYS AS ((details->>'budget')::bigint) STORED,
+    ADD COLUMN IF NOT EXISTS revenue BIGINT GENERATED ALWAYS AS ((details->>'revenue')::bigint) STORED,
+    ADD COLUMN IF NOT EXISTS tagline TEXT GENERATED ALWAYS AS (details->>'tagline') STORED,
+    ADD COLUMN IF NOT EXISTS status TEXT GENERATED ALWAYS AS (details->>'status') STORED,
+    ADD COLUMN IF NOT EXISTS homepage TEXT GENERATED ALWAYS AS (details->>'homepage') STORED,
+    ADD COLUMN IF NOT EXISTS imdb_id TEXT GENERATED ALWAYS AS (details->>'imdb_id') STORED;